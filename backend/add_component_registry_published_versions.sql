@@ -0,0 +1,10 @@
+-- Every version a registry entry has published; clients cache entries by id@version, so none may be reused
+ALTER TABLE component_registry ADD COLUMN IF NOT EXISTS published_versions TEXT[] NOT NULL DEFAULT '{}';
+
+UPDATE component_registry
+SET published_versions = ARRAY[version]
+WHERE version IS NOT NULL
+  AND cardinality(published_versions) = 0;
+
+-- Add comment
+COMMENT ON COLUMN component_registry.published_versions IS 'Versions this entry has had, including the current one';
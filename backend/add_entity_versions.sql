@@ -0,0 +1,14 @@
+-- Add optimistic-lock version columns used for ETags and conditional GETs
+ALTER TABLE websites ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE website_components ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Registry edits change every component response that embeds them
+ALTER TABLE component_registry ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+-- Add comments
+COMMENT ON COLUMN websites.version IS 'Incremented on every update; part of the website ETag';
+COMMENT ON COLUMN website_components.version IS 'Incremented on every update, including batch reorders';
+COMMENT ON COLUMN products.version IS 'Incremented on every update; part of the product list ETags';
+COMMENT ON COLUMN categories.version IS 'Incremented on every update; part of the category list ETags';
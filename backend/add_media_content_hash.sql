@@ -0,0 +1,11 @@
+-- Content-addressed media: identical files share one S3 object
+ALTER TABLE media ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- Reference counts are taken by URL before an object is deleted
+CREATE INDEX IF NOT EXISTS idx_media_s3_url ON media(s3_url);
+CREATE INDEX IF NOT EXISTS idx_media_content_hash ON media(content_hash);
+CREATE INDEX IF NOT EXISTS idx_products_image_url ON products(image_url);
+CREATE INDEX IF NOT EXISTS idx_products_image_urls ON products USING GIN (image_urls);
+
+-- Add comment
+COMMENT ON COLUMN media.content_hash IS 'Hex SHA-256 of the content; null for objects stored under a random key';
@@ -0,0 +1,5 @@
+-- Add status column to media table for asynchronous uploads
+ALTER TABLE media ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'READY';
+
+-- Add comment
+COMMENT ON COLUMN media.status IS 'UPLOADING while the S3 transfer runs, then READY or FAILED';
@@ -0,0 +1,34 @@
+-- Move bulk-written tables from IDENTITY ids to sequences Hibernate can allocate
+-- from in blocks of 50 (pooled-lo), which re-enables JDBC insert batching.
+-- The column default only serves manual SQL inserts: each defaulted row consumes a
+-- whole 50-id block, so application code allocates ids from the sequence explicitly.
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+SELECT setval('products_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq');
+ALTER SEQUENCE products_seq OWNED BY products.id;
+
+CREATE SEQUENCE IF NOT EXISTS website_components_seq INCREMENT BY 50;
+SELECT setval('website_components_seq', COALESCE((SELECT MAX(id) FROM website_components), 0) + 1, false);
+ALTER TABLE website_components ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE website_components ALTER COLUMN id SET DEFAULT nextval('website_components_seq');
+ALTER SEQUENCE website_components_seq OWNED BY website_components.id;
+
+CREATE SEQUENCE IF NOT EXISTS media_seq INCREMENT BY 50;
+SELECT setval('media_seq', COALESCE((SELECT MAX(id) FROM media), 0) + 1, false);
+ALTER TABLE media ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE media ALTER COLUMN id SET DEFAULT nextval('media_seq');
+ALTER SEQUENCE media_seq OWNED BY media.id;
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 1, false);
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE categories ALTER COLUMN id SET DEFAULT nextval('categories_seq');
+ALTER SEQUENCE categories_seq OWNED BY categories.id;
+
+CREATE SEQUENCE IF NOT EXISTS sub_categories_seq INCREMENT BY 50;
+SELECT setval('sub_categories_seq', COALESCE((SELECT MAX(id) FROM sub_categories), 0) + 1, false);
+ALTER TABLE sub_categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sub_categories ALTER COLUMN id SET DEFAULT nextval('sub_categories_seq');
+ALTER SEQUENCE sub_categories_seq OWNED BY sub_categories.id;
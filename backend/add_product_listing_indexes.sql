@@ -0,0 +1,9 @@
+-- Composite indexes backing keyset pagination of product listings.
+-- Each sort key is paired with id so (sort_value, id) seeks stay on the index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_created_at ON products (website_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_price ON products (website_id, price, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_name ON products (website_id, name, id);
+
+-- Filter indexes for category / sub-category narrowing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_category ON products (website_id, category_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_sub_category ON products (website_id, sub_category_id);
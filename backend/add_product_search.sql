@@ -0,0 +1,18 @@
+-- Full-text and fuzzy product search.
+-- 'simple' skips stemming so SKUs and non-English names are indexed verbatim.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Generated column stays in sync with every write, including bulk SQL
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(sku, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+) STORED;
+
+-- website_id leads both indexes so a search only touches one storefront's entries
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_search ON products USING GIN (website_id, search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_website_name_trgm ON products USING GIN (website_id, name gin_trgm_ops);
+
+-- Add comment
+COMMENT ON COLUMN products.search_vector IS 'Weighted name/SKU (A) and description (C) lexemes for product search';
@@ -0,0 +1,5 @@
+-- Add token_version column to users table for stateless JWT principals
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Add comment
+COMMENT ON COLUMN users.token_version IS 'Incremented on role or active change; JWTs with an older version are rejected';
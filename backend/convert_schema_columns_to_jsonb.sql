@@ -0,0 +1,4 @@
+-- Store component schemas and instance data as jsonb so they are validated on
+-- write and can be emitted inline in responses instead of as escaped strings
+ALTER TABLE website_components ALTER COLUMN schema_data TYPE jsonb USING schema_data::jsonb;
+ALTER TABLE component_registry ALTER COLUMN schema TYPE jsonb USING schema::jsonb;
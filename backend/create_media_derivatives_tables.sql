@@ -0,0 +1,30 @@
+-- Resized variants of image media
+CREATE TABLE IF NOT EXISTS media_variants (
+    media_id BIGINT NOT NULL,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    s3_url VARCHAR(500) NOT NULL,
+    size BIGINT NOT NULL,
+    FOREIGN KEY (media_id) REFERENCES media(id) ON DELETE CASCADE
+);
+
+-- Persistent queue of derivative work, polled with FOR UPDATE SKIP LOCKED
+CREATE TABLE IF NOT EXISTS media_derivative_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    media_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+-- Create indexes for better performance
+CREATE INDEX IF NOT EXISTS idx_media_variants_media_id ON media_variants(media_id);
+CREATE INDEX IF NOT EXISTS idx_media_derivative_jobs_status ON media_derivative_jobs(status, next_attempt_at);
+
+-- Queue existing images
+INSERT INTO media_derivative_jobs (media_id)
+SELECT id FROM media WHERE type = 'IMAGE' AND status = 'READY';
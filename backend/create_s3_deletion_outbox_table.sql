@@ -0,0 +1,13 @@
+-- Transactional outbox of S3 object keys awaiting deletion
+CREATE TABLE IF NOT EXISTS s3_deletion_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    object_key VARCHAR(1024) NOT NULL,
+    include_variants BOOLEAN NOT NULL DEFAULT false,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create indexes for better performance
+CREATE INDEX IF NOT EXISTS idx_s3_deletion_outbox_next_attempt ON s3_deletion_outbox(next_attempt_at);
@@ -0,0 +1,39 @@
+-- Convert products.image_urls from a JSON string (TEXT) to a native text[] column.
+-- Run before starting the backend on an existing database: ddl-auto=update does not change column types.
+-- Safe to run again: the conversion only happens while the column is still TEXT.
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = 'products'
+                     AND column_name = 'image_urls'
+                     AND data_type = 'text') THEN
+        RAISE NOTICE 'products.image_urls is not TEXT, nothing to convert';
+        RETURN;
+    END IF;
+
+    ALTER TABLE products ADD COLUMN IF NOT EXISTS image_urls_array TEXT[];
+
+    -- Malformed JSON rows are left NULL, matching the previous read behaviour (empty list).
+    -- Nested CASE because AND does not guarantee the validity check runs before the cast.
+    UPDATE products
+    SET image_urls_array = CASE WHEN pg_input_is_valid(image_urls, 'jsonb') THEN
+            CASE WHEN jsonb_typeof(image_urls::jsonb) = 'array'
+                 THEN ARRAY(SELECT jsonb_array_elements_text(image_urls::jsonb))
+            END
+        END
+    WHERE image_urls IS NOT NULL
+      AND image_urls <> '';
+
+    ALTER TABLE products DROP COLUMN image_urls;
+    ALTER TABLE products RENAME COLUMN image_urls_array TO image_urls;
+END
+$$;
+
+-- Add comment
+COMMENT ON COLUMN products.image_urls IS 'Product image URLs (max 5 images)';
+
+COMMIT;
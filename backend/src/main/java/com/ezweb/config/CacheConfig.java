@@ -0,0 +1,40 @@
+package com.ezweb.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PAGE_SNAPSHOTS = "pageSnapshots";
+    public static final String CATEGORY_TREES = "categoryTrees";
+    public static final String COMPONENT_SCHEMAS = "componentSchemas";
+
+    @Value("${cache.page-snapshots.spec}")
+    private String pageSnapshotsSpec;
+
+    @Value("${cache.category-trees.spec}")
+    private String categoryTreesSpec;
+
+    @Value("${cache.component-schemas.spec}")
+    private String componentSchemasSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PAGE_SNAPSHOTS, Caffeine.from(pageSnapshotsSpec).build());
+        cacheManager.registerCustomCache(CATEGORY_TREES, Caffeine.from(categoryTreesSpec).build());
+        cacheManager.registerCustomCache(COMPONENT_SCHEMAS, Caffeine.from(componentSchemasSpec).build());
+
+        // Evictions issued inside a transaction are applied after commit, so a
+        // concurrent reader cannot re-cache the pre-commit state
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ezweb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MediaDerivativeConfig {
+
+    public static final String MEDIA_DERIVATIVE_EXECUTOR = "mediaDerivativeExecutor";
+
+    @Value("${media.derivatives.pool-size}")
+    private int poolSize;
+
+    @Bean(name = MEDIA_DERIVATIVE_EXECUTOR)
+    public ThreadPoolTaskExecutor mediaDerivativeExecutor() {
+        // Image decoding is CPU and heap heavy; the worker only claims as many
+        // jobs as there are idle threads, so the queue never grows
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("media-derivative-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ezweb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MediaUploadConfig {
+
+    public static final String MEDIA_UPLOAD_EXECUTOR = "mediaUploadExecutor";
+
+    @Value("${media.upload.pool-size}")
+    private int poolSize;
+
+    @Value("${media.upload.queue-capacity}")
+    private int queueCapacity;
+
+    @Bean(name = MEDIA_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor mediaUploadExecutor() {
+        // Bounded pool and queue: S3 latency never holds Tomcat threads, and a
+        // burst of uploads is rejected instead of piling up temp files
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("media-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
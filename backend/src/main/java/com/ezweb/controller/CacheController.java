@@ -0,0 +1,31 @@
+package com.ezweb.controller;
+
+import com.ezweb.dto.CacheStatsResponse;
+import com.ezweb.dto.WriteBehindStatsResponse;
+import com.ezweb.service.CacheStatsService;
+import com.ezweb.service.ComponentWriteBehindBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+    private final ComponentWriteBehindBuffer componentWriteBehindBuffer;
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        CacheStatsResponse stats = cacheStatsService.getSecondLevelCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/write-behind/stats")
+    public ResponseEntity<WriteBehindStatsResponse> getWriteBehindStats() {
+        return ResponseEntity.ok(componentWriteBehindBuffer.getStats());
+    }
+}
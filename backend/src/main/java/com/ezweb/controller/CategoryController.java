@@ -2,12 +2,15 @@ package com.ezweb.controller;
 
 import com.ezweb.dto.*;
 import com.ezweb.service.CategoryService;
+import com.ezweb.service.EtagService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,10 +18,11 @@ import java.util.List;
 @RequestMapping("/api/websites/{websiteId}/categories")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final EtagService etagService;
 
     // ==================== Category Endpoints ====================
 
@@ -35,13 +39,34 @@ public class CategoryController {
     @GetMapping
     public ResponseEntity<List<CategoryResponse>> getWebsiteCategories(
             @PathVariable Long websiteId,
-            @RequestParam(required = false) Boolean activeOnly) {
+            @RequestParam(required = false) Boolean activeOnly,
+            WebRequest webRequest) {
         log.info("GET /api/websites/{}/categories - activeOnly: {}", websiteId, activeOnly);
 
+        String etag = etagService.categoriesTag(websiteId, Boolean.TRUE.equals(activeOnly));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         List<CategoryResponse> categories = categoryService.getWebsiteCategories(websiteId, activeOnly);
         return ResponseEntity.ok(categories);
     }
 
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryTreeNode>> getCategoryTree(
+            @PathVariable Long websiteId,
+            WebRequest webRequest) {
+        log.info("GET /api/websites/{}/categories/tree", websiteId);
+
+        String etag = etagService.categoryTreeTag(websiteId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<CategoryTreeNode> tree = categoryService.getCategoryTree(websiteId);
+        return ResponseEntity.ok(tree);
+    }
+
     @GetMapping("/{categoryId}")
     public ResponseEntity<CategoryResponse> getCategoryById(
             @PathVariable Long websiteId,
@@ -6,11 +6,13 @@ import com.ezweb.dto.ComponentRegistryResponse;
 import com.ezweb.service.ComponentRegistryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -67,9 +69,18 @@ public class ComponentRegistryController {
     }
 
     @GetMapping("/components/{id}")
-    public ResponseEntity<ComponentRegistryResponse> getComponentById(@PathVariable Long id) {
-        ComponentRegistryResponse component = componentRegistryService.getComponentById(id);
-        return ResponseEntity.ok(component);
+    public ResponseEntity<ComponentRegistryResponse> getComponentById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String version) {
+        if (version == null) {
+            return ResponseEntity.ok(componentRegistryService.getComponentById(id));
+        }
+
+        // A published id@version never changes, so it can be cached for good
+        ComponentRegistryResponse component = componentRegistryService.getComponentVersion(id, version);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(component);
     }
 
     @GetMapping("/components/category/{category}")
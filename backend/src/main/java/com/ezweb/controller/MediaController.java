@@ -1,10 +1,16 @@
 package com.ezweb.controller;
 
 import com.ezweb.dto.ApiResponse;
+import com.ezweb.dto.MediaUploadIntentRequest;
+import com.ezweb.dto.MediaUploadIntentResponse;
+import com.ezweb.dto.S3ReconcileReport;
 import com.ezweb.model.Media;
 import com.ezweb.security.UserPrincipal;
 import com.ezweb.service.MediaService;
+import com.ezweb.service.MediaUpload;
+import com.ezweb.service.S3ReconciliationService;
 import com.ezweb.service.S3Service;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +20,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -22,23 +29,64 @@ public class MediaController {
 
     private final MediaService mediaService;
     private final S3Service s3Service;
+    private final S3ReconciliationService s3ReconciliationService;
 
     @PostMapping("/media/upload")
-    public ResponseEntity<Media> uploadFile(
+    public CompletableFuture<ResponseEntity<Media>> uploadFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "folder", required = false, defaultValue = "uploads") String folder,
+            @RequestParam(value = "async", required = false, defaultValue = "false") boolean async,
             @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
-        Media media = mediaService.uploadFile(file, folder, userPrincipal.getId());
-        return new ResponseEntity<>(media, HttpStatus.CREATED);
+        MediaUpload upload = mediaService.uploadFile(file, folder, userPrincipal.getId());
+        return respond(upload, async);
     }
 
     @PostMapping("/websites/{websiteId}/media")
-    public ResponseEntity<Media> uploadMedia(
+    public CompletableFuture<ResponseEntity<Media>> uploadMedia(
             @PathVariable Long websiteId,
             @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "async", required = false, defaultValue = "false") boolean async,
             @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
-        Media media = mediaService.uploadMedia(websiteId, file, userPrincipal.getId());
-        return new ResponseEntity<>(media, HttpStatus.CREATED);
+        MediaUpload upload = mediaService.uploadMedia(websiteId, file, userPrincipal.getId());
+        return respond(upload, async);
+    }
+
+    @PostMapping("/media/upload-intent")
+    public ResponseEntity<MediaUploadIntentResponse> createUploadIntent(
+            @Valid @RequestBody MediaUploadIntentRequest request,
+            @RequestParam(value = "folder", required = false, defaultValue = "uploads") String folder,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        MediaUploadIntentResponse intent = mediaService.createUploadIntent(folder, request, userPrincipal.getId());
+        return new ResponseEntity<>(intent, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/websites/{websiteId}/media/upload-intent")
+    public ResponseEntity<MediaUploadIntentResponse> createWebsiteUploadIntent(
+            @PathVariable Long websiteId,
+            @Valid @RequestBody MediaUploadIntentRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        MediaUploadIntentResponse intent = mediaService.createUploadIntent(websiteId, request, userPrincipal.getId());
+        return new ResponseEntity<>(intent, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/media/{id}/complete")
+    public ResponseEntity<Media> completeUpload(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Media media = mediaService.completeUpload(id, userPrincipal.getId());
+        return ResponseEntity.ok(media);
+    }
+
+    /**
+     * With async=true answer 202 straight away and let the client poll GET /media/{id}
+     * for the status; otherwise answer 201 once the object is in S3. Either way the
+     * servlet thread is released while the transfer runs.
+     */
+    private CompletableFuture<ResponseEntity<Media>> respond(MediaUpload upload, boolean async) {
+        if (async) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(upload.media(), HttpStatus.ACCEPTED));
+        }
+        return upload.completion().thenApply(media -> new ResponseEntity<>(media, HttpStatus.CREATED));
     }
 
     @GetMapping("/websites/{websiteId}/media")
@@ -74,6 +122,13 @@ public class MediaController {
         return ResponseEntity.ok(new ApiResponse(true, "Media deleted successfully"));
     }
 
+    @PostMapping("/admin/s3/reconcile")
+    public ResponseEntity<S3ReconcileReport> reconcileS3(
+            @RequestParam(value = "purge", required = false, defaultValue = "false") boolean purge) {
+        S3ReconcileReport report = s3ReconciliationService.reconcile(purge);
+        return ResponseEntity.ok(report);
+    }
+
     @PostMapping("/admin/s3/configure-cors")
     public ResponseEntity<ApiResponse> configureS3Cors() {
         s3Service.configureBucketCors();
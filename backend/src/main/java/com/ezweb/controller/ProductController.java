@@ -1,17 +1,29 @@
 package com.ezweb.controller;
 
 import com.ezweb.dto.ApiResponse;
+import com.ezweb.dto.ProductImportReport;
+import com.ezweb.dto.ProductPageRequest;
+import com.ezweb.dto.ProductPageResponse;
 import com.ezweb.dto.ProductRequest;
 import com.ezweb.dto.ProductResponse;
+import com.ezweb.dto.ProductSearchRequest;
 import com.ezweb.security.UserPrincipal;
+import com.ezweb.service.EtagService;
+import com.ezweb.service.ProductBulkService;
 import com.ezweb.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,7 +31,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
 
+    // Set on capped listings that stop at products.list.max-results; /page returns the rest
+    public static final String TRUNCATED_HEADER = "X-Truncated";
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final EtagService etagService;
 
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(
@@ -33,23 +50,89 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getWebsiteProducts(
             @PathVariable Long websiteId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        String etag = etagService.productsTag(websiteId, userPrincipal.getId(), false);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return cappedList(productService.getWebsiteProducts(websiteId, userPrincipal.getId()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getWebsiteProductsPage(
+            @PathVariable Long websiteId,
+            @Valid ProductPageRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ProductPageResponse page = productService.getWebsiteProductsPage(websiteId, request, userPrincipal.getId());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @PathVariable Long websiteId,
+            @Valid ProductSearchRequest request,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<ProductResponse> products = productService.getWebsiteProducts(websiteId, userPrincipal.getId());
+        List<ProductResponse> products = productService.searchWebsiteProducts(websiteId, request, userPrincipal.getId());
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<ProductResponse>> getAvailableProducts(@PathVariable Long websiteId) {
-        List<ProductResponse> products = productService.getAvailableProducts(websiteId);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductResponse>> getAvailableProducts(
+            @PathVariable Long websiteId,
+            WebRequest webRequest) {
+        String etag = etagService.productsTag(websiteId, null, true);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return cappedList(productService.getAvailableProducts(websiteId));
+    }
+
+    @GetMapping("/available/page")
+    public ResponseEntity<ProductPageResponse> getAvailableProductsPage(
+            @PathVariable Long websiteId,
+            @Valid ProductPageRequest request) {
+        ProductPageResponse page = productService.getAvailableProductsPage(websiteId, request);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductResponse>> getProductsByCategory(
             @PathVariable Long websiteId,
-            @PathVariable String category) {
-        List<ProductResponse> products = productService.getProductsByCategory(websiteId, category);
-        return ResponseEntity.ok(products);
+            @PathVariable String category,
+            WebRequest webRequest) {
+        String etag = etagService.productsByCategoryTag(websiteId, category);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return cappedList(productService.getProductsByCategory(websiteId, category));
+    }
+
+    @PostMapping(value = "/import", consumes = {ProductBulkService.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportReport> importProducts(
+            @PathVariable Long websiteId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ProductImportReport report = productBulkService.importProducts(
+                websiteId, userPrincipal.getId(), body, contentType);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @PathVariable Long websiteId,
+            @RequestParam(defaultValue = "csv") String format,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        MediaType mediaType = productBulkService.exportMediaType(format);
+        StreamingResponseBody body = productBulkService.exportProducts(websiteId, userPrincipal.getId(), mediaType);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products-" + websiteId + "." + format)
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -79,4 +162,12 @@ public class ProductController {
         productService.deleteProduct(id, userPrincipal.getId());
         return ResponseEntity.ok(new ApiResponse(true, "Product deleted successfully"));
     }
+
+    static ResponseEntity<List<ProductResponse>> cappedList(ProductPageResponse list) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (Boolean.TRUE.equals(list.getHasMore())) {
+            response.header(TRUNCATED_HEADER, "true");
+        }
+        return response.body(list.getItems());
+    }
 }
@@ -1,31 +1,45 @@
 package com.ezweb.controller;
 
 import com.ezweb.dto.ApiResponse;
+import com.ezweb.dto.CompactComponentListResponse;
+import com.ezweb.dto.ComponentOrderResponse;
+import com.ezweb.dto.ComponentPositionResponse;
 import com.ezweb.dto.WebsiteComponentRequest;
 import com.ezweb.dto.WebsiteComponentResponse;
 import com.ezweb.security.UserPrincipal;
+import com.ezweb.service.EtagService;
 import com.ezweb.service.WebsiteComponentService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/websites/{websiteId}/components")
 @RequiredArgsConstructor
 public class WebsiteComponentController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final String JSON_PATCH_JSON_VALUE = "application/json-patch+json";
+
     private final WebsiteComponentService websiteComponentService;
+    private final EtagService etagService;
 
     @PostMapping
     public ResponseEntity<WebsiteComponentResponse> addComponent(
             @PathVariable Long websiteId,
             @Valid @RequestBody WebsiteComponentRequest request,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
         WebsiteComponentResponse response = websiteComponentService.addComponentToWebsite(
                 websiteId, request, userPrincipal.getId());
         return new ResponseEntity<>(response, HttpStatus.CREATED);
@@ -34,25 +48,56 @@ public class WebsiteComponentController {
     @GetMapping
     public ResponseEntity<List<WebsiteComponentResponse>> getWebsiteComponents(
             @PathVariable Long websiteId,
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        // Pending buffered updates must be stored before the tag is computed, or a stale 304 could follow
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        String etag = etagService.componentsTag(websiteId, userPrincipal.getId(), false);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<WebsiteComponentResponse> components = websiteComponentService.getWebsiteComponents(
                 websiteId, userPrincipal.getId());
         return ResponseEntity.ok(components);
     }
 
     @GetMapping("/visible")
-    public ResponseEntity<List<WebsiteComponentResponse>> getVisibleComponents(@PathVariable Long websiteId) {
+    public ResponseEntity<List<WebsiteComponentResponse>> getVisibleComponents(
+            @PathVariable Long websiteId,
+            WebRequest webRequest) {
+        String etag = etagService.componentsTag(websiteId, null, true);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<WebsiteComponentResponse> components = websiteComponentService.getVisibleWebsiteComponents(websiteId);
         return ResponseEntity.ok(components);
     }
 
+    @GetMapping(value = "/visible", params = "view=compact")
+    public ResponseEntity<CompactComponentListResponse> getVisibleComponentsCompact(
+            @PathVariable Long websiteId,
+            @RequestParam(name = "known", required = false) Set<String> knownRegistries,
+            WebRequest webRequest) {
+        Set<String> known = knownRegistries != null ? new TreeSet<>(knownRegistries) : new TreeSet<>();
+        String etag = etagService.variant(etagService.componentsTag(websiteId, null, true),
+                "compact:" + String.join(",", known));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CompactComponentListResponse components = websiteComponentService.getVisibleWebsiteComponentsCompact(
+                websiteId, known);
+        return ResponseEntity.ok(components);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<WebsiteComponentResponse> getComponentById(
             @PathVariable Long websiteId,
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        WebsiteComponentResponse component = websiteComponentService.getComponentById(id, userPrincipal.getId());
-        return ResponseEntity.ok(component);
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        WebsiteComponentResponse component = websiteComponentService.getComponentById(
+                websiteId, id, userPrincipal.getId());
+        return ResponseEntity.ok().eTag(etagService.componentTag(component.getId(), component.getVersion())).body(component);
     }
 
     @PutMapping("/{id}")
@@ -62,25 +107,55 @@ public class WebsiteComponentController {
             @Valid @RequestBody WebsiteComponentRequest request,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         WebsiteComponentResponse component = websiteComponentService.updateWebsiteComponent(
-                id, request, userPrincipal.getId());
+                websiteId, id, request, userPrincipal.getId());
         return ResponseEntity.ok(component);
     }
 
+    // PATCH bodies apply to schemaData only; position and visibility go through PUT and reorder
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<WebsiteComponentResponse> mergePatchComponent(
+            @PathVariable Long websiteId,
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        WebsiteComponentResponse component = websiteComponentService.mergePatchWebsiteComponent(
+                websiteId, id, patch, ifMatch, userPrincipal.getId());
+        return ResponseEntity.ok().eTag(etagService.componentTag(component.getId(), component.getVersion())).body(component);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = JSON_PATCH_JSON_VALUE)
+    public ResponseEntity<WebsiteComponentResponse> jsonPatchComponent(
+            @PathVariable Long websiteId,
+            @PathVariable Long id,
+            @RequestBody JsonNode operations,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        WebsiteComponentResponse component = websiteComponentService.jsonPatchWebsiteComponent(
+                websiteId, id, operations, ifMatch, userPrincipal.getId());
+        return ResponseEntity.ok().eTag(etagService.componentTag(component.getId(), component.getVersion())).body(component);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse> deleteComponent(
             @PathVariable Long websiteId,
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        websiteComponentService.deleteWebsiteComponent(id, userPrincipal.getId());
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        websiteComponentService.deleteWebsiteComponent(websiteId, id, userPrincipal.getId());
         return ResponseEntity.ok(new ApiResponse(true, "Component deleted successfully"));
     }
 
     @PutMapping("/reorder")
-    public ResponseEntity<ApiResponse> reorderComponents(
+    public ResponseEntity<ComponentOrderResponse> reorderComponents(
             @PathVariable Long websiteId,
             @RequestBody List<Long> componentIds,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        websiteComponentService.reorderComponents(websiteId, componentIds, userPrincipal.getId());
-        return ResponseEntity.ok(new ApiResponse(true, "Components reordered successfully"));
+        websiteComponentService.flushPendingUpdates(websiteId, userPrincipal.getId());
+        List<ComponentPositionResponse> ordering = websiteComponentService.reorderComponents(
+                websiteId, componentIds, userPrincipal.getId());
+        return ResponseEntity.ok(new ComponentOrderResponse(true, "Components reordered successfully", ordering));
     }
 }
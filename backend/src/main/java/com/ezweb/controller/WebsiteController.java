@@ -1,18 +1,31 @@
 package com.ezweb.controller;
 
 import com.ezweb.dto.ApiResponse;
+import com.ezweb.dto.CategoryTreeNode;
+import com.ezweb.dto.PageSnapshotResponse;
+import com.ezweb.dto.ProductPageRequest;
+import com.ezweb.dto.ProductPageResponse;
 import com.ezweb.dto.ProductResponse;
+import com.ezweb.dto.ProductSearchRequest;
 import com.ezweb.dto.WebsiteRequest;
 import com.ezweb.dto.WebsiteResponse;
 import com.ezweb.security.UserPrincipal;
+import com.ezweb.service.CategoryService;
+import com.ezweb.service.EtagService;
+import com.ezweb.service.PageSnapshotService;
 import com.ezweb.service.ProductService;
 import com.ezweb.service.WebsiteService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,6 +36,9 @@ public class WebsiteController {
 
     private final WebsiteService websiteService;
     private final ProductService productService;
+    private final CategoryService categoryService;
+    private final PageSnapshotService pageSnapshotService;
+    private final EtagService etagService;
 
     @PostMapping
     public ResponseEntity<WebsiteResponse> createWebsite(
@@ -34,7 +50,12 @@ public class WebsiteController {
 
     @GetMapping
     public ResponseEntity<List<WebsiteResponse>> getUserWebsites(
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        String etag = etagService.userWebsitesTag(userPrincipal.getId());
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<WebsiteResponse> websites = websiteService.getUserWebsites(userPrincipal.getId());
         return ResponseEntity.ok(websites);
     }
@@ -42,24 +63,87 @@ public class WebsiteController {
     @GetMapping("/{id}")
     public ResponseEntity<WebsiteResponse> getWebsiteById(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        String etag = etagService.websiteTag(id, userPrincipal.getId());
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         WebsiteResponse website = websiteService.getWebsiteById(id, userPrincipal.getId());
         return ResponseEntity.ok(website);
     }
 
     @GetMapping("/subdomain/{subdomain}")
-    public ResponseEntity<WebsiteResponse> getWebsiteBySubdomain(@PathVariable String subdomain) {
+    public ResponseEntity<WebsiteResponse> getWebsiteBySubdomain(
+            @PathVariable String subdomain,
+            WebRequest webRequest) {
+        String etag = etagService.websiteTag(subdomain);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
         return ResponseEntity.ok(website);
     }
 
     @GetMapping("/subdomain/{subdomain}/products/available")
-    public ResponseEntity<List<ProductResponse>> getAvailableProductsBySubdomain(@PathVariable String subdomain) {
+    public ResponseEntity<List<ProductResponse>> getAvailableProductsBySubdomain(
+            @PathVariable String subdomain,
+            WebRequest webRequest) {
+        String etag = etagService.availableProductsTag(subdomain);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
+        return ProductController.cappedList(productService.getAvailableProducts(website.getId()));
+    }
+
+    @GetMapping("/subdomain/{subdomain}/products/available/page")
+    public ResponseEntity<ProductPageResponse> getAvailableProductsPageBySubdomain(
+            @PathVariable String subdomain,
+            @Valid ProductPageRequest request) {
+        WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
+        ProductPageResponse page = productService.getAvailableProductsPage(website.getId(), request);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/subdomain/{subdomain}/products/search")
+    public ResponseEntity<List<ProductResponse>> searchProductsBySubdomain(
+            @PathVariable String subdomain,
+            @Valid ProductSearchRequest request) {
         WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
-        List<ProductResponse> products = productService.getAvailableProducts(website.getId());
+        List<ProductResponse> products = productService.searchAvailableProducts(website.getId(), request);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/subdomain/{subdomain}/products/suggest")
+    public ResponseEntity<List<String>> suggestProductsBySubdomain(
+            @PathVariable String subdomain,
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @RequestParam(defaultValue = "8") @Min(1) @Max(20) int limit) {
+        WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
+        List<String> names = productService.suggestProductNames(website.getId(), q, limit);
+        return ResponseEntity.ok(names);
+    }
+
+    @GetMapping("/subdomain/{subdomain}/categories/tree")
+    public ResponseEntity<List<CategoryTreeNode>> getCategoryTreeBySubdomain(
+            @PathVariable String subdomain,
+            WebRequest webRequest) {
+        WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
+        String etag = etagService.categoryTreeTag(website.getId());
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<CategoryTreeNode> tree = categoryService.getCategoryTree(website.getId());
+        return ResponseEntity.ok(tree);
+    }
+
+    @GetMapping("/subdomain/{subdomain}/page")
+    public ResponseEntity<PageSnapshotResponse> getPageSnapshotBySubdomain(@PathVariable String subdomain) {
+        PageSnapshotResponse snapshot = pageSnapshotService.getPageSnapshot(subdomain);
+        return ResponseEntity.ok(snapshot);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<WebsiteResponse> updateWebsite(
             @PathVariable Long id,
@@ -0,0 +1,15 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheRegionStats {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio;
+    private Long elementsInMemory;  // -1 when the provider does not report it
+}
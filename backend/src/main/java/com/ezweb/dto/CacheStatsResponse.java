@@ -0,0 +1,15 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private List<CacheRegionStats> regions;
+    private Long queryCacheHits;
+    private Long queryCacheMisses;
+    private Long queryCachePuts;
+}
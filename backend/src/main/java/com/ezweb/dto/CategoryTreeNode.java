@@ -0,0 +1,18 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeNode {
+    private Long id;
+    private String name;
+    private String description;
+    private Long productCount;
+    private List<CategoryTreeNode> subCategories;
+}
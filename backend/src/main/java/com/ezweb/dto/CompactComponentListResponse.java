@@ -0,0 +1,15 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class CompactComponentListResponse {
+    private List<CompactWebsiteComponentResponse> components;
+    // Each registry once, keyed by "id@version"; entries the client listed as known are left out
+    private Map<String, ComponentRegistryResponse> registries;
+}
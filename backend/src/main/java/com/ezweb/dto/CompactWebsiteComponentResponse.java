@@ -0,0 +1,21 @@
+package com.ezweb.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CompactWebsiteComponentResponse {
+    private Long id;
+    private Long websiteId;
+    private String componentRegistryKey;  // Key into CompactComponentListResponse.registries
+    private Long componentRegistryId;
+    private String componentRegistryVersion;
+    @JsonRawValue
+    private String schemaData;
+    private Integer position;
+    private Boolean visible;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ComponentOrderResponse {
+    private Boolean success;
+    private String message;
+    private List<ComponentPositionResponse> components;  // New ordering, by position
+}
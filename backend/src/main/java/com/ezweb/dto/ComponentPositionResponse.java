@@ -0,0 +1,11 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ComponentPositionResponse {
+    private Long id;
+    private Integer position;
+}
@@ -1,5 +1,6 @@
 package com.ezweb.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -18,7 +19,8 @@ public class ComponentRegistryRequest {
     private String s3FileUrl;
 
     @NotBlank(message = "Schema is required")
-    private String schema; // JSON string
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String schema; // JSON document, inline or as a string
 
     private String category;
 
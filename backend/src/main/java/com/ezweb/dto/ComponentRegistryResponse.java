@@ -1,5 +1,7 @@
 package com.ezweb.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -10,9 +12,11 @@ public class ComponentRegistryResponse {
     private String name;
     private String description;
     private String s3FileUrl;
+    @JsonRawValue  // Stored as jsonb; emitted inline rather than as an escaped string
     private String schema;
     private String category;
     private String version;
+    @JsonInclude(JsonInclude.Include.NON_NULL)  // Omitted from id@version responses
     private Boolean active;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,26 @@
+package com.ezweb.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class MediaUploadIntentRequest {
+    @NotBlank(message = "Filename is required")
+    @Size(max = 255, message = "Filename must not exceed 255 characters")
+    private String filename;
+
+    @Size(max = 100, message = "Content type must not exceed 100 characters")
+    private String contentType;
+
+    @NotNull(message = "Size is required")
+    @Positive(message = "Size must be positive")
+    private Long size;  // Declared size in bytes, confirmed against S3 on completion
+
+    // Optional hex SHA-256 of the file; enables deduplication and is enforced by S3 on upload
+    @Pattern(regexp = "^[a-f0-9]{64}$", message = "sha256 must be 64 lowercase hex characters")
+    private String sha256;
+}
@@ -0,0 +1,17 @@
+package com.ezweb.dto;
+
+import com.ezweb.model.Media;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class MediaUploadIntentResponse {
+    private Media media;
+    private String uploadUrl;  // PUT the file here before expiresAt; null when the content is already stored
+    private Map<String, String> uploadHeaders;  // Signed headers the PUT must carry
+    private Instant expiresAt;
+}
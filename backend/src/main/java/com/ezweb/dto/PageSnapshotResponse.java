@@ -0,0 +1,17 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageSnapshotResponse {
+    private WebsiteResponse website;
+    private List<WebsiteComponentResponse> components;  // Visible components ordered by position
+    private List<ProductResponse> products;  // Available products, up to products.list.max-results
+    private Boolean productsTruncated;  // True when more products exist; fetch them from /products/available/page
+}
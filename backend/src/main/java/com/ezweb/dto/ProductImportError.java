@@ -0,0 +1,11 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductImportError {
+    private Long row;  // 1-based data row, not counting the CSV header
+    private String message;
+}
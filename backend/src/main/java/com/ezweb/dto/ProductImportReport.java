@@ -0,0 +1,14 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductImportReport {
+    private Long imported;
+    private Long failed;
+    private List<ProductImportError> errors;  // Capped; failed holds the full count
+}
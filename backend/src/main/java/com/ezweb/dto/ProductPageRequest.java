@@ -0,0 +1,39 @@
+package com.ezweb.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductPageRequest {
+
+    private String cursor;  // Opaque nextCursor from the previous page
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must not exceed 100")
+    private Integer limit = 20;
+
+    @Pattern(regexp = "createdAt|price|name", message = "Sort must be one of createdAt, price, name")
+    private String sort = "createdAt";
+
+    @Pattern(regexp = "asc|desc", message = "Direction must be asc or desc")
+    private String direction = "desc";
+
+    private Long categoryId;
+
+    private Long subCategoryId;
+
+    @DecimalMin(value = "0.0", message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+
+    private Boolean inStock;
+
+    private Boolean available;
+}
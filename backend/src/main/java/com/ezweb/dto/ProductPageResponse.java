@@ -0,0 +1,14 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPageResponse {
+    private List<ProductResponse> items;
+    private String nextCursor;  // Null on the last page
+    private Boolean hasMore;
+}
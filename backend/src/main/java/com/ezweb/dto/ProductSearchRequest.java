@@ -0,0 +1,34 @@
+package com.ezweb.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductSearchRequest {
+
+    @NotBlank(message = "Search query is required")
+    @Size(max = 200, message = "Search query must not exceed 200 characters")
+    private String q;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 50, message = "Limit must not exceed 50")
+    private Integer limit = 20;
+
+    private Long categoryId;
+
+    private Long subCategoryId;
+
+    @DecimalMin(value = "0.0", message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+
+    private Boolean available;
+}
@@ -0,0 +1,45 @@
+package com.ezweb.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Reads a JSON document field into compact JSON text for a jsonb column. The
+ * document may be sent inline or, as older clients do, as an escaped string.
+ * Either way it is parsed exactly once, streamed token by token into the
+ * output without building a tree, and rejected if it is not valid JSON.
+ */
+public class RawJsonDeserializer extends JsonDeserializer<String> {
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return copy(parser);
+        }
+
+        try (JsonParser embedded = parser.getCodec().getFactory().createParser(parser.getText())) {
+            if (embedded.nextToken() == null) {
+                return context.reportInputMismatch(String.class, "Expected a JSON document but got an empty string");
+            }
+            String json = copy(embedded);
+            if (embedded.nextToken() != null) {
+                return context.reportInputMismatch(String.class, "Unexpected content after the JSON document");
+            }
+            return json;
+        }
+    }
+
+    private static String copy(JsonParser parser) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = parser.getCodec().getFactory().createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toString();
+    }
+}
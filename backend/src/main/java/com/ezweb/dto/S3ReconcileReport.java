@@ -0,0 +1,17 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class S3ReconcileReport {
+    private Long referencedKeys;
+    private Long scannedObjects;
+    private Long orphanedObjects;
+    private Long orphanedBytes;
+    private Boolean purged;  // Orphans were queued in the deletion outbox
+    private List<String> sampleOrphans;
+}
@@ -1,5 +1,6 @@
 package com.ezweb.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -11,7 +12,8 @@ public class WebsiteComponentRequest {
     private Long componentRegistryId;
 
     @NotBlank(message = "Schema data is required")
-    private String schemaData; // JSON with customized values
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String schemaData; // JSON document, inline or as a string
 
     private Integer position = 0;
 
@@ -1,5 +1,6 @@
 package com.ezweb.dto;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -9,9 +10,11 @@ public class WebsiteComponentResponse {
     private Long id;
     private Long websiteId;
     private ComponentRegistryResponse componentRegistry;
+    @JsonRawValue
     private String schemaData;
     private Integer position;
     private Boolean visible;
+    private Long version;  // Accepted as If-Match on PATCH, like the ETag
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,16 @@
+package com.ezweb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class WriteBehindStatsResponse {
+    private Boolean enabled;
+    private Integer pending;
+    private Long updatesReceived;
+    private Long rowsWritten;
+    private Long flushes;
+    private Long failures;
+    private Double coalescingRatio;  // Updates received per row written; null before the first write
+}
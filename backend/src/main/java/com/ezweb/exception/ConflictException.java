@@ -0,0 +1,7 @@
+package com.ezweb.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
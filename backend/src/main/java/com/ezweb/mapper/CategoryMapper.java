@@ -0,0 +1,47 @@
+package com.ezweb.mapper;
+
+import com.ezweb.dto.CategoryResponse;
+import com.ezweb.dto.SubCategoryResponse;
+import com.ezweb.model.Category;
+import com.ezweb.model.SubCategory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryResponse toResponse(Category category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(category.getId());
+        response.setWebsiteId(category.getWebsite().getId());
+        response.setName(category.getName());
+        response.setDescription(category.getDescription());
+        response.setActive(category.getActive());
+        response.setCreatedAt(category.getCreatedAt());
+        response.setUpdatedAt(category.getUpdatedAt());
+
+        // Map sub-categories
+        List<SubCategoryResponse> subCategories = new ArrayList<>(category.getSubCategories().size());
+        for (SubCategory subCategory : category.getSubCategories()) {
+            subCategories.add(toResponse(subCategory));
+        }
+        response.setSubCategories(subCategories);
+
+        return response;
+    }
+
+    public SubCategoryResponse toResponse(SubCategory subCategory) {
+        SubCategoryResponse response = new SubCategoryResponse();
+        response.setId(subCategory.getId());
+        response.setCategoryId(subCategory.getCategory().getId());
+        response.setCategoryName(subCategory.getCategory().getName());
+        response.setName(subCategory.getName());
+        response.setDescription(subCategory.getDescription());
+        response.setActive(subCategory.getActive());
+        response.setCreatedAt(subCategory.getCreatedAt());
+        response.setUpdatedAt(subCategory.getUpdatedAt());
+        return response;
+    }
+}
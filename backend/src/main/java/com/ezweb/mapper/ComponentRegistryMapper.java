@@ -0,0 +1,39 @@
+package com.ezweb.mapper;
+
+import com.ezweb.dto.ComponentRegistryResponse;
+import com.ezweb.model.ComponentRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ComponentRegistryMapper {
+
+    /**
+     * Cache key for a registry entry. Every field of {@link #toVersionedResponse}
+     * is fixed for a published version, so clients may keep an entry under this
+     * key indefinitely.
+     */
+    public static String registryKey(ComponentRegistry component) {
+        return component.getId() + "@" + component.getVersion();
+    }
+
+    public ComponentRegistryResponse toResponse(ComponentRegistry component) {
+        ComponentRegistryResponse response = new ComponentRegistryResponse();
+        response.setId(component.getId());
+        response.setName(component.getName());
+        response.setDescription(component.getDescription());
+        response.setS3FileUrl(component.getS3FileUrl());
+        response.setSchema(component.getSchema());
+        response.setCategory(component.getCategory());
+        response.setVersion(component.getVersion());
+        response.setActive(component.getActive());
+        response.setCreatedAt(component.getCreatedAt());
+        return response;
+    }
+
+    // Leaves out active, which deactivation changes without a new version
+    public ComponentRegistryResponse toVersionedResponse(ComponentRegistry component) {
+        ComponentRegistryResponse response = toResponse(component);
+        response.setActive(null);
+        return response;
+    }
+}
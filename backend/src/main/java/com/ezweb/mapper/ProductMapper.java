@@ -0,0 +1,41 @@
+package com.ezweb.mapper;
+
+import com.ezweb.dto.ProductResponse;
+import com.ezweb.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+@Component
+public class ProductMapper {
+
+    public ProductResponse toResponse(Product product) {
+        ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setWebsiteId(product.getWebsite().getId());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setPrice(product.getPrice());
+        response.setImageUrl(product.getImageUrl());
+        response.setStock(product.getStock());
+        response.setAvailable(product.getAvailable());
+        response.setCategory(product.getCategory());
+        response.setSku(product.getSku());
+        response.setCreatedAt(product.getCreatedAt());
+        response.setUpdatedAt(product.getUpdatedAt());
+
+        if (product.getImageUrls() != null && !product.getImageUrls().isEmpty()) {
+            response.setImageUrls(new ArrayList<>(product.getImageUrls()));
+        }
+
+        // Map category and sub-category IDs
+        if (product.getCategoryObj() != null) {
+            response.setCategoryId(product.getCategoryObj().getId());
+        }
+        if (product.getSubCategory() != null) {
+            response.setSubCategoryId(product.getSubCategory().getId());
+        }
+
+        return response;
+    }
+}
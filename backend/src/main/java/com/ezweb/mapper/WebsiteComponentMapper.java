@@ -0,0 +1,46 @@
+package com.ezweb.mapper;
+
+import com.ezweb.dto.CompactWebsiteComponentResponse;
+import com.ezweb.dto.WebsiteComponentResponse;
+import com.ezweb.model.ComponentRegistry;
+import com.ezweb.model.WebsiteComponent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class WebsiteComponentMapper {
+
+    private final ComponentRegistryMapper componentRegistryMapper;
+
+    public WebsiteComponentResponse toResponse(WebsiteComponent component) {
+        WebsiteComponentResponse response = new WebsiteComponentResponse();
+        response.setId(component.getId());
+        response.setWebsiteId(component.getWebsite().getId());
+        response.setComponentRegistry(componentRegistryMapper.toResponse(component.getComponentRegistry()));
+        response.setSchemaData(component.getSchemaData());
+        response.setPosition(component.getPosition());
+        response.setVisible(component.getVisible());
+        response.setVersion(component.getVersion());
+        response.setCreatedAt(component.getCreatedAt());
+        response.setUpdatedAt(component.getUpdatedAt());
+        return response;
+    }
+
+    public CompactWebsiteComponentResponse toCompactResponse(WebsiteComponent component) {
+        ComponentRegistry registry = component.getComponentRegistry();
+
+        CompactWebsiteComponentResponse response = new CompactWebsiteComponentResponse();
+        response.setId(component.getId());
+        response.setWebsiteId(component.getWebsite().getId());
+        response.setComponentRegistryKey(ComponentRegistryMapper.registryKey(registry));
+        response.setComponentRegistryId(registry.getId());
+        response.setComponentRegistryVersion(registry.getVersion());
+        response.setSchemaData(component.getSchemaData());
+        response.setPosition(component.getPosition());
+        response.setVisible(component.getVisible());
+        response.setCreatedAt(component.getCreatedAt());
+        response.setUpdatedAt(component.getUpdatedAt());
+        return response;
+    }
+}
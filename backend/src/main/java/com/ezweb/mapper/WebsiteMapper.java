@@ -0,0 +1,21 @@
+package com.ezweb.mapper;
+
+import com.ezweb.dto.WebsiteResponse;
+import com.ezweb.model.Website;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WebsiteMapper {
+
+    public WebsiteResponse toResponse(Website website) {
+        WebsiteResponse response = new WebsiteResponse();
+        response.setId(website.getId());
+        response.setSubdomain(website.getSubdomain());
+        response.setTitle(website.getTitle());
+        response.setDescription(website.getDescription());
+        response.setPublished(website.getPublished());
+        response.setCreatedAt(website.getCreatedAt());
+        response.setUpdatedAt(website.getUpdatedAt());
+        return response;
+    }
+}
@@ -4,11 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "component_registry")
 @Data
 @NoArgsConstructor
@@ -28,8 +37,9 @@ public class ComponentRegistry {
     @Column(name = "s3_file_url", nullable = false, length = 500)
     private String s3FileUrl;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
-    private String schema; // JSON schema stored as text
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private String schema; // JSON schema document
 
     @Column(length = 50)
     private String category;
@@ -37,10 +47,18 @@ public class ComponentRegistry {
     @Column(length = 20)
     private String version = "1.0.0";
 
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "published_versions", columnDefinition = "text[]", nullable = false)
+    private List<String> publishedVersions = new ArrayList<>();  // Every version so far, so none is reused
+
     @Column(nullable = false)
     private Boolean active = true;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
@@ -4,19 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "media")
+@Table(name = "media", indexes = {
+        @Index(name = "idx_media_s3_url", columnList = "s3_url"),
+        @Index(name = "idx_media_content_hash", columnList = "content_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Media {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "media_seq")
+    @SequenceGenerator(name = "media_seq", sequenceName = "media_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,6 +37,10 @@ public class Media {
     @Column(name = "s3_url", nullable = false, length = 500)
     private String s3Url;
 
+    // SHA-256 of the content, hex; null for objects stored under a random key
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private MediaType type;
@@ -39,11 +51,38 @@ public class Media {
     @Column(name = "mime_type", length = 100)
     private String mimeType;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MediaStatus status = MediaStatus.READY;
+
+    // Resized copies written next to the original, narrowest first
+    @ElementCollection
+    @CollectionTable(name = "media_variants", joinColumns = @JoinColumn(name = "media_id"))
+    @OrderBy("width")
+    @BatchSize(size = 50)
+    private List<MediaVariant> variants = new ArrayList<>();
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Value for an img srcset attribute, or null until variants exist
+     */
+    public String getSrcset() {
+        if (variants == null || variants.isEmpty()) {
+            return null;
+        }
+        return variants.stream()
+                .map(variant -> variant.getS3Url() + " " + variant.getWidth() + "w")
+                .collect(Collectors.joining(", "));
+    }
+
     public enum MediaType {
         IMAGE, VIDEO, DOCUMENT, OTHER
     }
+
+    public enum MediaStatus {
+        UPLOADING, READY, FAILED
+    }
 }
@@ -5,20 +5,30 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_website_created_at", columnList = "website_id, created_at, id"),
+        @Index(name = "idx_products_website_price", columnList = "website_id, price, id"),
+        @Index(name = "idx_products_website_name", columnList = "website_id, name, id"),
+        @Index(name = "idx_products_website_category", columnList = "website_id, category_id"),
+        @Index(name = "idx_products_website_sub_category", columnList = "website_id, sub_category_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,8 +47,9 @@ public class Product {
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
-    @Column(name = "image_urls", columnDefinition = "TEXT")
-    private String imageUrls;  // JSON array of image URLs (max 5)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "image_urls", columnDefinition = "text[]")
+    private List<String> imageUrls;  // Product image URLs (max 5), native array column
 
     @Column(nullable = false)
     private Integer stock = 0;
@@ -67,4 +78,8 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
 }
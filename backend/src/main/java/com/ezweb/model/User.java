@@ -1,5 +1,6 @@
 package com.ezweb.model;
 
+import com.ezweb.security.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,9 +11,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +41,10 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Bumped whenever role or active changes; stateless JWTs carrying an older value are rejected
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Website> websites = new ArrayList<>();
 
@@ -49,6 +56,24 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    public void setRole(Role role) {
+        if (this.role != role) {
+            bumpTokenVersion();
+        }
+        this.role = role;
+    }
+
+    public void setActive(Boolean active) {
+        if (!Objects.equals(this.active, active)) {
+            bumpTokenVersion();
+        }
+        this.active = active;
+    }
+
+    private void bumpTokenVersion() {
+        tokenVersion = tokenVersion == null ? 1 : tokenVersion + 1;
+    }
+
     public enum Role {
         USER, ADMIN
     }
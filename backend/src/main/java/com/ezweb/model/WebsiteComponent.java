@@ -5,7 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -17,7 +19,8 @@ import java.time.LocalDateTime;
 public class WebsiteComponent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "website_components_seq")
+    @SequenceGenerator(name = "website_components_seq", sequenceName = "website_components_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,7 +31,8 @@ public class WebsiteComponent {
     @JoinColumn(name = "component_registry_id", nullable = false)
     private ComponentRegistry componentRegistry;
 
-    @Column(name = "schema_data", columnDefinition = "TEXT", nullable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "schema_data", columnDefinition = "jsonb", nullable = false)
     private String schemaData; // JSON data with customized values
 
     @Column(nullable = false)
@@ -44,4 +48,8 @@ public class WebsiteComponent {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
 }
@@ -1,13 +1,30 @@
 package com.ezweb.repository;
 
 import com.ezweb.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    // Cached query results are invalidated by Hibernate on any write to categories
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByWebsiteIdOrderByNameAsc(Long websiteId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByWebsiteIdAndActiveTrue(Long websiteId);
+
+    // Categories and their sub-categories in one round trip
+    @Query("SELECT DISTINCT c FROM Category c LEFT JOIN FETCH c.subCategories " +
+            "WHERE c.website.id = :websiteId AND c.active = true ORDER BY c.name")
+    List<Category> findActiveWithSubCategoriesByWebsiteId(@Param("websiteId") Long websiteId);
+
+    // (category id, sub-category id) pairs for the whole website; sub-category id is null for empty categories
+    @Query("SELECT c.id, s.id FROM Category c LEFT JOIN c.subCategories s WHERE c.website.id = :websiteId")
+    List<Object[]> findIdPairsByWebsiteId(@Param("websiteId") Long websiteId);
 }
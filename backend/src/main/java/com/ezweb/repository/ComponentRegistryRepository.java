@@ -1,9 +1,15 @@
 package com.ezweb.repository;
 
 import com.ezweb.model.ComponentRegistry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +18,18 @@ public interface ComponentRegistryRepository extends JpaRepository<ComponentRegi
 
     Optional<ComponentRegistry> findByName(String name);
 
+    // Cached query results are invalidated by Hibernate on any write to component_registry
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ComponentRegistry> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ComponentRegistry> findByCategory(String category);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ComponentRegistry> findByActiveTrue();
 
     Boolean existsByName(String name);
+
+    @Query("SELECT DISTINCT c.s3FileUrl FROM ComponentRegistry c WHERE c.s3FileUrl IN :urls")
+    List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
 }
@@ -0,0 +1,24 @@
+package com.ezweb.repository;
+
+import com.ezweb.model.MediaDerivativeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MediaDerivativeJobRepository extends JpaRepository<MediaDerivativeJob, Long> {
+
+    // SKIP LOCKED lets several nodes poll the same table without handing out a job twice;
+    // RUNNING jobs not touched since staleBefore belonged to a worker that died mid-job
+    @Query(value = "SELECT * FROM media_derivative_jobs " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'RUNNING' AND updated_at < :staleBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MediaDerivativeJob> findClaimable(@Param("now") LocalDateTime now,
+                                           @Param("staleBefore") LocalDateTime staleBefore,
+                                           @Param("limit") int limit);
+}
@@ -1,10 +1,17 @@
 package com.ezweb.repository;
 
 import com.ezweb.model.Media;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MediaRepository extends JpaRepository<Media, Long> {
@@ -14,4 +21,18 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
     List<Media> findByWebsiteIdAndType(Long websiteId, Media.MediaType type);
 
     void deleteByWebsiteId(Long websiteId);
+
+    @EntityGraph(attributePaths = {"variants"})
+    Optional<Media> findFirstByS3UrlAndStatus(String s3Url, Media.MediaStatus status);
+
+    @Query("SELECT DISTINCT m.s3Url FROM Media m WHERE m.s3Url IN :urls")
+    List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT m.s3Url FROM Media m WHERE m.website.id = :websiteId")
+    List<String> findS3UrlsByWebsiteId(@Param("websiteId") Long websiteId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Media m SET m.status = :status WHERE m.id = :id")
+    void updateStatus(@Param("id") Long id, @Param("status") Media.MediaStatus status);
 }
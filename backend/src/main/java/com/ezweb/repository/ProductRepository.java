@@ -1,19 +1,49 @@
 package com.ezweb.repository;
 
 import com.ezweb.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
 
-    List<Product> findByWebsiteId(Long websiteId);
+    // Fetch-join the associations read by the response mapping to avoid N+1 selects.
+    // The plain listings are capped; the keyset-paginated listings page through everything.
+    @EntityGraph(attributePaths = {"website", "categoryObj", "subCategory"})
+    List<Product> findByWebsiteIdOrderByIdAsc(Long websiteId, Limit limit);
 
-    List<Product> findByWebsiteIdAndAvailableTrue(Long websiteId);
+    @EntityGraph(attributePaths = {"website", "categoryObj", "subCategory"})
+    List<Product> findByWebsiteIdAndAvailableTrueOrderByIdAsc(Long websiteId, Limit limit);
 
-    List<Product> findByWebsiteIdAndCategory(Long websiteId, String category);
+    @EntityGraph(attributePaths = {"website", "categoryObj", "subCategory"})
+    List<Product> findByWebsiteIdAndCategoryOrderByIdAsc(Long websiteId, String category, Limit limit);
+
+    @EntityGraph(attributePaths = {"website", "categoryObj", "subCategory"})
+    List<Product> findByIdIn(Collection<Long> ids);
 
     void deleteByWebsiteId(Long websiteId);
+
+    // Rows of (category id, sub-category id, count); either id may be null
+    @Query("SELECT c.id, s.id, COUNT(p) FROM Product p LEFT JOIN p.categoryObj c LEFT JOIN p.subCategory s " +
+            "WHERE p.website.id = :websiteId AND p.available = true GROUP BY c.id, s.id")
+    List<Object[]> countAvailableByCategory(@Param("websiteId") Long websiteId);
+
+    // && rather than = ANY so the GIN index on image_urls can narrow the rows first
+    @Query(value = "SELECT image_url FROM products WHERE image_url IN (:urls) " +
+            "UNION SELECT u FROM products p CROSS JOIN unnest(p.image_urls) u " +
+            "WHERE p.image_urls && CAST(ARRAY[:urls] AS text[]) AND u IN (:urls)", nativeQuery = true)
+    List<String> findReferencedImageUrls(@Param("urls") Collection<String> urls);
+
+    @Query(value = "SELECT image_url FROM products WHERE website_id = :websiteId AND image_url IS NOT NULL " +
+            "UNION SELECT unnest(image_urls) FROM products WHERE website_id = :websiteId", nativeQuery = true)
+    List<String> findImageUrlsByWebsiteId(@Param("websiteId") Long websiteId);
 }
@@ -0,0 +1,27 @@
+package com.ezweb.repository;
+
+import com.ezweb.dto.ProductRequest;
+import com.ezweb.dto.ProductSearchRequest;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Ids of matching products, best match first. A product matches when its
+     * search vector satisfies {@code tsQuery} or its name is trigram-similar to
+     * {@code text}, so misspelled names still hit.
+     */
+    List<Long> searchIds(Long websiteId, String tsQuery, String text, ProductSearchRequest filters);
+
+    /**
+     * Distinct names of available products for autocomplete, closest first.
+     */
+    List<String> suggestNames(Long websiteId, String tsQuery, String text, int limit);
+
+    /**
+     * Insert {@code rows} for a website as one JDBC batch. Category ids must
+     * already be checked against the website; bypasses the persistence context.
+     */
+    void insertBatch(Long websiteId, List<ProductRequest> rows);
+}
@@ -0,0 +1,123 @@
+package com.ezweb.repository;
+
+import com.ezweb.dto.ProductRequest;
+import com.ezweb.dto.ProductSearchRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // Both predicates lead with website_id so each can use its (website_id, ...) GIN index
+    private static final String MATCH =
+            "p.website_id = ? AND (p.search_vector @@ to_tsquery('simple', ?) OR p.name % ?)";
+
+    private static final String RANK =
+            "ts_rank_cd(p.search_vector, to_tsquery('simple', ?)) + similarity(p.name, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, website_id, name, description, price, image_url, image_urls, stock, available, " +
+            "category, sku, category_id, sub_category_id, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Must match the @SequenceGenerator on Product: pooled-lo reads nextval as the low end of a 50-id block
+    private static final String ID_SEQUENCE_SQL = "SELECT nextval('products_seq') FROM generate_series(1, ?)";
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> searchIds(Long websiteId, String tsQuery, String text, ProductSearchRequest filters) {
+        StringBuilder sql = new StringBuilder("SELECT p.id FROM products p WHERE ").append(MATCH);
+        List<Object> args = new ArrayList<>(List.of(websiteId, tsQuery, text));
+
+        if (filters.getAvailable() != null) {
+            sql.append(" AND p.available = ?");
+            args.add(filters.getAvailable());
+        }
+        if (filters.getCategoryId() != null) {
+            sql.append(" AND p.category_id = ?");
+            args.add(filters.getCategoryId());
+        }
+        if (filters.getSubCategoryId() != null) {
+            sql.append(" AND p.sub_category_id = ?");
+            args.add(filters.getSubCategoryId());
+        }
+        if (filters.getMinPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            args.add(filters.getMinPrice());
+        }
+        if (filters.getMaxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            args.add(filters.getMaxPrice());
+        }
+
+        sql.append(" ORDER BY ").append(RANK).append(" DESC, p.id LIMIT ?");
+        args.add(tsQuery);
+        args.add(text);
+        args.add(filters.getLimit());
+
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    @Override
+    public List<String> suggestNames(Long websiteId, String tsQuery, String text, int limit) {
+        String sql = "SELECT p.name FROM products p WHERE " + MATCH + " AND p.available = true " +
+                "GROUP BY p.name ORDER BY MAX(" + RANK + ") DESC, p.name LIMIT ?";
+        return jdbcTemplate.queryForList(sql, String.class, websiteId, tsQuery, text, tsQuery, text, limit);
+    }
+
+    @Override
+    public void insertBatch(Long websiteId, List<ProductRequest> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = allocateIds(rows.size());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), new ParameterizedPreparedStatementSetter<>() {
+            private int index;
+
+            @Override
+            public void setValues(PreparedStatement ps, ProductRequest row) throws SQLException {
+                ps.setLong(1, ids.get(index++));
+                ps.setLong(2, websiteId);
+                ps.setString(3, row.getName());
+                ps.setString(4, row.getDescription());
+                ps.setBigDecimal(5, row.getPrice());
+                ps.setString(6, row.getImageUrl());
+                if (row.getImageUrls() != null && !row.getImageUrls().isEmpty()) {
+                    ps.setArray(7, ps.getConnection().createArrayOf("text", row.getImageUrls().toArray()));
+                } else {
+                    ps.setNull(7, Types.ARRAY);
+                }
+                ps.setInt(8, row.getStock() != null ? row.getStock() : 0);
+                ps.setBoolean(9, row.getAvailable() == null || row.getAvailable());
+                ps.setString(10, row.getCategory());
+                ps.setString(11, row.getSku());
+                ps.setObject(12, row.getCategoryId(), Types.BIGINT);
+                ps.setObject(13, row.getSubCategoryId(), Types.BIGINT);
+                ps.setTimestamp(14, now);
+                ps.setTimestamp(15, now);
+            }
+        });
+    }
+
+    // Ids come from the same sequence and block size as Hibernate's inserts, so neither path collides
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(blocks * ID_BLOCK_SIZE);
+        for (Long low : jdbcTemplate.queryForList(ID_SEQUENCE_SQL, Long.class, blocks)) {
+            for (int i = 0; i < ID_BLOCK_SIZE; i++) {
+                ids.add(low + i);
+            }
+        }
+        return ids;
+    }
+}
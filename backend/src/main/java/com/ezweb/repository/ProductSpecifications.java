@@ -0,0 +1,89 @@
+package com.ezweb.repository;
+
+import com.ezweb.model.Product;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Building blocks for filtered, keyset-paginated product listings.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> belongsToWebsite(Long websiteId) {
+        return (root, query, cb) -> cb.equal(root.get("website").get("id"), websiteId);
+    }
+
+    public static Specification<Product> isAvailable(boolean available) {
+        return (root, query, cb) -> cb.equal(root.get("available"), available);
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryObj").get("id"), categoryId);
+    }
+
+    public static Specification<Product> inSubCategory(Long subCategoryId) {
+        return (root, query, cb) -> cb.equal(root.get("subCategory").get("id"), subCategoryId);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> inStock(boolean inStock) {
+        return (root, query, cb) -> inStock
+                ? cb.greaterThan(root.get("stock"), 0)
+                : cb.lessThanOrEqualTo(root.get("stock"), 0);
+    }
+
+    /**
+     * Rows strictly after ({@code sortValue}, {@code id}) in the given order.
+     * Sorting must use the same attribute with {@code id} as the tie-breaker.
+     */
+    public static <T extends Comparable<? super T>> Specification<Product> after(
+            String attribute, T sortValue, Long id, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<T> sortPath = root.get(attribute);
+            Path<Long> idPath = root.get("id");
+            // Nulls sort last ascending and first descending, matching the listing's ORDER BY
+            if (sortValue == null) {
+                Predicate nullsAfter = cb.and(cb.isNull(sortPath),
+                        ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id));
+                return ascending ? nullsAfter : cb.or(nullsAfter, cb.isNotNull(sortPath));
+            }
+            if (ascending) {
+                return cb.or(
+                        cb.greaterThan(sortPath, sortValue),
+                        cb.and(cb.equal(sortPath, sortValue), cb.greaterThan(idPath, id)),
+                        cb.isNull(sortPath));
+            }
+            return cb.or(
+                    cb.lessThan(sortPath, sortValue),
+                    cb.and(cb.equal(sortPath, sortValue), cb.lessThan(idPath, id)));
+        };
+    }
+
+    /**
+     * Fetch-join the associations read by the response mapping.
+     */
+    public static Specification<Product> fetchAssociations() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("website", JoinType.LEFT);
+                root.fetch("categoryObj", JoinType.LEFT);
+                root.fetch("subCategory", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.ezweb.repository;
+
+import com.ezweb.model.S3DeletionOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface S3DeletionOutboxRepository extends JpaRepository<S3DeletionOutbox, Long>, S3DeletionOutboxRepositoryCustom {
+
+    // SKIP LOCKED lets several nodes drain the outbox without deleting the same batch twice
+    @Query(value = "SELECT * FROM s3_deletion_outbox WHERE next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<S3DeletionOutbox> findDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
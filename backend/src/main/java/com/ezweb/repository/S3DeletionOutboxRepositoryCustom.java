@@ -0,0 +1,12 @@
+package com.ezweb.repository;
+
+import java.util.Collection;
+
+public interface S3DeletionOutboxRepositoryCustom {
+
+    /**
+     * Queue object keys for deletion using a single JDBC batch. Runs in the
+     * caller's transaction, so the keys are only queued if the delete commits.
+     */
+    void enqueue(Collection<String> objectKeys, boolean includeVariants);
+}
@@ -0,0 +1,36 @@
+package com.ezweb.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class S3DeletionOutboxRepositoryImpl implements S3DeletionOutboxRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO s3_deletion_outbox (object_key, include_variants, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void enqueue(Collection<String> objectKeys, boolean includeVariants) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batchArgs = new ArrayList<>(objectKeys.size());
+        for (String objectKey : objectKeys) {
+            batchArgs.add(new Object[]{objectKey, includeVariants, now, now});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+}
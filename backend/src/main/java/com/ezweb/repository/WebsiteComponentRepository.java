@@ -1,17 +1,24 @@
 package com.ezweb.repository;
 
 import com.ezweb.model.WebsiteComponent;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface WebsiteComponentRepository extends JpaRepository<WebsiteComponent, Long> {
+public interface WebsiteComponentRepository extends JpaRepository<WebsiteComponent, Long>, WebsiteComponentRepositoryCustom {
 
+    // Fetch-join the associations read by the response mapping to avoid N+1 selects
+    @EntityGraph(attributePaths = {"componentRegistry", "website"})
     List<WebsiteComponent> findByWebsiteIdOrderByPositionAsc(Long websiteId);
 
+    @EntityGraph(attributePaths = {"componentRegistry", "website"})
     List<WebsiteComponent> findByWebsiteIdAndVisibleTrueOrderByPositionAsc(Long websiteId);
 
+    long countByWebsiteIdAndIdIn(Long websiteId, Collection<Long> ids);
+
     void deleteByWebsiteId(Long websiteId);
 }
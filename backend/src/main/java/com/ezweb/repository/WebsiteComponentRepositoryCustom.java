@@ -0,0 +1,13 @@
+package com.ezweb.repository;
+
+import java.util.List;
+
+public interface WebsiteComponentRepositoryCustom {
+
+    /**
+     * Set each component's position to its index in {@code orderedIds} using a
+     * single JDBC batch. Bypasses the persistence context, so callers must not
+     * hold managed copies of these components in the same transaction.
+     */
+    void updatePositions(Long websiteId, List<Long> orderedIds);
+}
@@ -0,0 +1,30 @@
+package com.ezweb.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class WebsiteComponentRepositoryImpl implements WebsiteComponentRepositoryCustom {
+
+    private static final String UPDATE_POSITION_SQL =
+            "UPDATE website_components SET position = ?, updated_at = ?, version = version + 1 WHERE id = ? AND website_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void updatePositions(Long websiteId, List<Long> orderedIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batchArgs = new ArrayList<>(orderedIds.size());
+        for (int i = 0; i < orderedIds.size(); i++) {
+            batchArgs.add(new Object[]{i, now, orderedIds.get(i), websiteId});
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, batchArgs);
+    }
+}
@@ -15,4 +15,6 @@ public interface WebsiteRepository extends JpaRepository<Website, Long> {
     List<Website> findByUserId(Long userId);
 
     Boolean existsBySubdomain(String subdomain);
+
+    Boolean existsByIdAndUserId(Long id, Long userId);
 }
@@ -31,4 +31,10 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    @Transactional(readOnly = true)
+    public Integer loadTokenVersion(Long id) {
+        return userRepository.findTokenVersionById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+    }
 }
@@ -0,0 +1,98 @@
+package com.ezweb.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring caches for the JWT filter: tokens that already passed
+ * signature verification, the principals loaded for their users, and the
+ * current token version of each user for stateless mode.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Cache<Long, UserDetails> principals;
+    private final Cache<Long, Integer> tokenVersions;
+
+    public JwtAuthenticationCache(@Value("${jwt.cache.maximum-size}") long maximumSize,
+                                  @Value("${jwt.cache.ttl}") long ttlMillis) {
+        long ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        // Never keep a token past its own expiration
+                        long untilExpiry = Duration.ofMillis(value.expiresAt() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+
+        this.tokenVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    public VerifiedToken getVerifiedToken(String token) {
+        return verifiedTokens.getIfPresent(token);
+    }
+
+    public VerifiedToken putVerifiedToken(String token, Long userId, UserPrincipal claimsPrincipal, Date expiration) {
+        long expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        VerifiedToken verified = new VerifiedToken(userId, claimsPrincipal, expiresAt);
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
+    public UserDetails getPrincipal(Long userId, Function<Long, UserDetails> loader) {
+        return principals.get(userId, loader);
+    }
+
+    public Integer getTokenVersion(Long userId, Function<Long, Integer> loader) {
+        return tokenVersions.get(userId, loader);
+    }
+
+    public Integer reloadTokenVersion(Long userId, Function<Long, Integer> loader) {
+        tokenVersions.invalidate(userId);
+        return tokenVersions.get(userId, loader);
+    }
+
+    public void evictUser(Long userId) {
+        principals.invalidate(userId);
+        tokenVersions.invalidate(userId);
+    }
+
+    /**
+     * @param claimsPrincipal principal rebuilt from the token claims, or null
+     *                        when the token does not carry them
+     */
+    public record VerifiedToken(Long userId, UserPrincipal claimsPrincipal, long expiresAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.ezweb.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +22,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final JwtAuthenticationCache authenticationCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,10 +30,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            JwtAuthenticationCache.VerifiedToken verified = StringUtils.hasText(jwt) ? resolveToken(jwt) : null;
+            UserDetails userDetails = verified != null ? loadPrincipal(verified) : null;
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -45,6 +47,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private JwtAuthenticationCache.VerifiedToken resolveToken(String jwt) {
+        // Skip signature verification for tokens we have already verified
+        JwtAuthenticationCache.VerifiedToken verified = authenticationCache.getVerifiedToken(jwt);
+        if (verified != null) {
+            return verified;
+        }
+
+        Claims claims = tokenProvider.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        UserPrincipal claimsPrincipal = tokenProvider.isStatelessPrincipal()
+                ? tokenProvider.getPrincipalFromClaims(claims)
+                : null;
+        return authenticationCache.putVerifiedToken(
+                jwt, Long.parseLong(claims.getSubject()), claimsPrincipal, claims.getExpiration());
+    }
+
+    private UserDetails loadPrincipal(JwtAuthenticationCache.VerifiedToken verified) {
+        UserPrincipal claimsPrincipal = verified.claimsPrincipal();
+        if (claimsPrincipal == null) {
+            return authenticationCache.getPrincipal(verified.userId(), customUserDetailsService::loadUserById);
+        }
+
+        Integer tokenVersion = claimsPrincipal.getTokenVersion();
+        Integer currentVersion = authenticationCache.getTokenVersion(
+                verified.userId(), customUserDetailsService::loadTokenVersion);
+        if (tokenVersion > currentVersion) {
+            // Token is newer than what this node has seen; the cached version is stale
+            currentVersion = authenticationCache.reloadTokenVersion(
+                    verified.userId(), customUserDetailsService::loadTokenVersion);
+        }
+
+        // Older versions belong to tokens issued before a role or active-flag change
+        return tokenVersion.equals(currentVersion) ? claimsPrincipal : null;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -2,6 +2,7 @@ package com.ezweb.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -22,8 +23,23 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long jwtRefreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.stateless-principal}")
+    private boolean statelessPrincipal;
+
+    private static final String CLAIM_USERNAME = "username";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -31,11 +47,21 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(Long.toString(userPrincipal.getId()))
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .expiration(expiryDate);
+
+        if (statelessPrincipal) {
+            // Enough to rebuild the principal in JwtAuthenticationFilter without a user lookup
+            String role = userPrincipal.getAuthorities().iterator().next().getAuthority().substring("ROLE_".length());
+            builder.claim(CLAIM_USERNAME, userPrincipal.getUsername())
+                    .claim(CLAIM_ROLE, role)
+                    .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion());
+        }
+
+        return builder
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -47,29 +73,49 @@ public class JwtTokenProvider {
                 .subject(Long.toString(userId))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify the token and return its claims in a single parse, or null if the
+     * token is malformed, expired or not signed with our key.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
+
+    /**
+     * Rebuild the principal embedded by {@link #generateToken}, or null if the
+     * token was issued without principal claims (refresh tokens, or tokens
+     * issued before stateless mode was turned on).
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        String username = claims.get(CLAIM_USERNAME, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (username == null || role == null || tokenVersion == null) {
+            return null;
+        }
+
+        return UserPrincipal.fromClaims(Long.parseLong(claims.getSubject()), username, role, tokenVersion);
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return Long.parseLong(claims.getSubject());
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 }
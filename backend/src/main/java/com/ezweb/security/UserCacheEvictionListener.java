@@ -0,0 +1,38 @@
+package com.ezweb.security;
+
+import com.ezweb.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops the cached principal and token version whenever a user row changes
+ * (role, active flag, ...), so the next authenticated request reloads them.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+
+    // JPA callbacks run at flush, before commit; evicting then would let a concurrent
+    // request re-cache the old row for the whole TTL
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jwtAuthenticationCache.evictUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jwtAuthenticationCache.evictUser(userId);
+            }
+        });
+    }
+}
@@ -19,6 +19,7 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private Integer tokenVersion;
 
     public static UserPrincipal create(User user) {
         Collection<GrantedAuthority> authorities = Collections.singleton(
@@ -30,10 +31,23 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                user.getTokenVersion()
         );
     }
 
+    /**
+     * Build a principal from verified JWT claims without touching the database.
+     * Email and password are not carried in the token and are left null.
+     */
+    public static UserPrincipal fromClaims(Long id, String username, String role, Integer tokenVersion) {
+        Collection<GrantedAuthority> authorities = Collections.singleton(
+                new SimpleGrantedAuthority("ROLE_" + role)
+        );
+
+        return new UserPrincipal(id, username, null, null, authorities, tokenVersion);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -6,6 +6,7 @@ import com.ezweb.dto.RegisterRequest;
 import com.ezweb.model.User;
 import com.ezweb.repository.UserRepository;
 import com.ezweb.security.JwtTokenProvider;
+import com.ezweb.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -110,8 +111,9 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Generate new access token
+        UserPrincipal userPrincipal = UserPrincipal.create(user);
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                user.getUsername(), null, null
+                userPrincipal, null, userPrincipal.getAuthorities()
         );
         String newAccessToken = tokenProvider.generateToken(authentication);
 
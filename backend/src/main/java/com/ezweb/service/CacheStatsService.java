@@ -0,0 +1,55 @@
+package com.ezweb.service;
+
+import com.ezweb.dto.CacheRegionStats;
+import com.ezweb.dto.CacheStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsResponse getSecondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStats> regions = new ArrayList<>();
+        for (String region : sortedRegionNames(statistics)) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            regions.add(new CacheRegionStats(
+                    region,
+                    hits,
+                    misses,
+                    regionStatistics.getPutCount(),
+                    hits + misses == 0 ? 0.0 : (double) hits / (hits + misses),
+                    regionStatistics.getElementCountInMemory()));
+        }
+
+        return new CacheStatsResponse(
+                regions,
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount());
+    }
+
+    private List<String> sortedRegionNames(Statistics statistics) {
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        return Arrays.asList(names);
+    }
+}
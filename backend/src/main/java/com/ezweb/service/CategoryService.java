@@ -1,18 +1,26 @@
 package com.ezweb.service;
 
+import com.ezweb.config.CacheConfig;
 import com.ezweb.dto.*;
+import com.ezweb.mapper.CategoryMapper;
 import com.ezweb.model.Category;
 import com.ezweb.model.SubCategory;
 import com.ezweb.model.Website;
 import com.ezweb.repository.CategoryRepository;
+import com.ezweb.repository.ProductRepository;
 import com.ezweb.repository.SubCategoryRepository;
 import com.ezweb.repository.WebsiteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +31,10 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
     private final WebsiteRepository websiteRepository;
+    private final ProductRepository productRepository;
+    private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final PageSnapshotCache pageSnapshotCache;
 
     // ==================== Category Operations ====================
 
@@ -41,6 +53,8 @@ public class CategoryService {
 
         Category saved = categoryRepository.save(category);
         log.info("Category created with id: {}", saved.getId());
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(website.getSubdomain());
 
         return mapToCategoryResponse(saved);
     }
@@ -61,6 +75,43 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Active categories with their active sub-categories and available product
+     * counts, for storefront navigation. Two queries regardless of tree size.
+     */
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_TREES, key = "#websiteId")
+    @Transactional(readOnly = true)
+    public List<CategoryTreeNode> getCategoryTree(Long websiteId) {
+        log.info("Building category tree for website: {}", websiteId);
+
+        List<Category> categories = categoryRepository.findActiveWithSubCategoriesByWebsiteId(websiteId);
+
+        Map<Long, Long> categoryCounts = new HashMap<>();
+        Map<Long, Long> subCategoryCounts = new HashMap<>();
+        for (Object[] row : productRepository.countAvailableByCategory(websiteId)) {
+            Long count = (Long) row[2];
+            if (row[0] != null) {
+                categoryCounts.merge((Long) row[0], count, Long::sum);
+            }
+            if (row[1] != null) {
+                subCategoryCounts.merge((Long) row[1], count, Long::sum);
+            }
+        }
+
+        List<CategoryTreeNode> tree = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            List<CategoryTreeNode> children = category.getSubCategories().stream()
+                    .filter(SubCategory::getActive)
+                    .sorted(Comparator.comparing(SubCategory::getName))
+                    .map(sub -> new CategoryTreeNode(sub.getId(), sub.getName(), sub.getDescription(),
+                            subCategoryCounts.getOrDefault(sub.getId(), 0L), List.of()))
+                    .collect(Collectors.toList());
+            tree.add(new CategoryTreeNode(category.getId(), category.getName(), category.getDescription(),
+                    categoryCounts.getOrDefault(category.getId(), 0L), children));
+        }
+        return tree;
+    }
+
     @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long categoryId) {
         log.info("Fetching category with id: {}", categoryId);
@@ -90,6 +141,8 @@ public class CategoryService {
 
         Category updated = categoryRepository.save(category);
         log.info("Category updated: {}", categoryId);
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(category.getWebsite().getSubdomain());
 
         return mapToCategoryResponse(updated);
     }
@@ -107,6 +160,8 @@ public class CategoryService {
 
         categoryRepository.delete(category);
         log.info("Category deleted: {}", categoryId);
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(category.getWebsite().getSubdomain());
     }
 
     // ==================== Sub-Category Operations ====================
@@ -130,6 +185,8 @@ public class CategoryService {
 
         SubCategory saved = subCategoryRepository.save(subCategory);
         log.info("Sub-category created with id: {}", saved.getId());
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(category.getWebsite().getSubdomain());
 
         return mapToSubCategoryResponse(saved);
     }
@@ -190,6 +247,8 @@ public class CategoryService {
 
         SubCategory updated = subCategoryRepository.save(subCategory);
         log.info("Sub-category updated: {}", subCategoryId);
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(subCategory.getCategory().getWebsite().getSubdomain());
 
         return mapToSubCategoryResponse(updated);
     }
@@ -207,40 +266,17 @@ public class CategoryService {
 
         subCategoryRepository.delete(subCategory);
         log.info("Sub-category deleted: {}", subCategoryId);
+        categoryTreeCache.evict(websiteId);
+        pageSnapshotCache.evict(subCategory.getCategory().getWebsite().getSubdomain());
     }
 
     // ==================== Mapping Methods ====================
 
     private CategoryResponse mapToCategoryResponse(Category category) {
-        CategoryResponse response = new CategoryResponse();
-        response.setId(category.getId());
-        response.setWebsiteId(category.getWebsite().getId());
-        response.setName(category.getName());
-        response.setDescription(category.getDescription());
-        response.setActive(category.getActive());
-        response.setCreatedAt(category.getCreatedAt());
-        response.setUpdatedAt(category.getUpdatedAt());
-
-        // Map sub-categories
-        List<SubCategoryResponse> subCategories = category.getSubCategories().stream()
-                .map(this::mapToSubCategoryResponse)
-                .collect(Collectors.toList());
-        response.setSubCategories(subCategories);
-
-        return response;
+        return categoryMapper.toResponse(category);
     }
 
     private SubCategoryResponse mapToSubCategoryResponse(SubCategory subCategory) {
-        SubCategoryResponse response = new SubCategoryResponse();
-        response.setId(subCategory.getId());
-        response.setCategoryId(subCategory.getCategory().getId());
-        response.setCategoryName(subCategory.getCategory().getName());
-        response.setName(subCategory.getName());
-        response.setDescription(subCategory.getDescription());
-        response.setActive(subCategory.getActive());
-        response.setCreatedAt(subCategory.getCreatedAt());
-        response.setUpdatedAt(subCategory.getUpdatedAt());
-
-        return response;
+        return categoryMapper.toResponse(subCategory);
     }
 }
@@ -0,0 +1,20 @@
+package com.ezweb.service;
+
+import com.ezweb.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eviction side of the storefront category tree cache. Product writes evict too,
+ * since the tree carries product counts.
+ */
+@Component
+@Slf4j
+public class CategoryTreeCache {
+
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_TREES, key = "#websiteId")
+    public void evict(Long websiteId) {
+        log.debug("Evicting category tree for website: {}", websiteId);
+    }
+}
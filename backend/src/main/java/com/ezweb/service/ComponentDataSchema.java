@@ -0,0 +1,157 @@
+package com.ezweb.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A registry schema compiled into one check per field, so saving component data
+ * walks a flat list instead of interpreting the schema document again.
+ *
+ * Registry schemas use the component builder's field format ({@code type},
+ * {@code required}, {@code default}, {@code options}, {@code maxImages}), not
+ * JSON Schema. Fields of an {@code advanced} section are stored at the top level
+ * of the data, so they are flattened here as well. Undeclared keys and unknown
+ * field types are accepted, so newer clients and schemas keep working.
+ */
+final class ComponentDataSchema {
+
+    static final ComponentDataSchema PERMISSIVE = new ComponentDataSchema(List.of());
+
+    private static final int MAX_ERRORS = 20;
+
+    private final List<Field> fields;
+
+    private ComponentDataSchema(List<Field> fields) {
+        this.fields = fields;
+    }
+
+    static ComponentDataSchema compile(JsonNode document) {
+        // Stored either as the whole builder document or as just its field map
+        JsonNode fieldMap = document.path("schema").isObject() ? document.get("schema") : document;
+
+        Map<String, Field> fields = new LinkedHashMap<>();
+        collect(fieldMap, fields);
+        return new ComponentDataSchema(List.copyOf(fields.values()));
+    }
+
+    /**
+     * @return one message per invalid field, empty when the data is valid
+     */
+    List<String> validate(JsonNode data) {
+        if (!data.isObject()) {
+            return List.of("component data must be a JSON object");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Field field : fields) {
+            if (errors.size() >= MAX_ERRORS) {
+                break;
+            }
+
+            JsonNode value = data.get(field.name());
+            if (value == null || value.isNull()) {
+                // Renderers fill in defaults, so only a required field without one must be present
+                if (field.required() && !field.hasDefault()) {
+                    errors.add(field.name() + " is required");
+                }
+                continue;
+            }
+
+            String error = field.check().apply(value);
+            if (error != null) {
+                errors.add(field.name() + " " + error);
+            }
+        }
+        return errors;
+    }
+
+    private static void collect(JsonNode fieldMap, Map<String, Field> fields) {
+        for (Map.Entry<String, JsonNode> entry : fieldMap.properties()) {
+            JsonNode definition = entry.getValue();
+            if (!definition.isObject()) {
+                continue;
+            }
+
+            if ("advanced".equals(definition.path("type").asText())) {
+                collect(definition.path("schema"), fields);
+                continue;
+            }
+
+            fields.put(entry.getKey(), new Field(
+                    entry.getKey(),
+                    definition.path("required").asBoolean(false),
+                    definition.hasNonNull("default"),
+                    checkFor(definition)));
+        }
+    }
+
+    private static Function<JsonNode, String> checkFor(JsonNode definition) {
+        return switch (definition.path("type").asText()) {
+            case "text", "richtext", "image", "url", "color" ->
+                    value -> value.isTextual() ? null : "must be a string";
+            case "number" ->
+                    value -> value.isNumber() || isNumeric(value) ? null : "must be a number";
+            case "boolean" ->
+                    value -> value.isBoolean() || isBooleanText(value) ? null : "must be true or false";
+            case "select" -> selectCheck(definition.path("options"));
+            case "multi-images" -> imagesCheck(definition.path("maxImages").asInt(0));
+            default -> value -> null;
+        };
+    }
+
+    // Options may be strings or numbers, and form widgets may send either form back
+    private static Function<JsonNode, String> selectCheck(JsonNode options) {
+        Set<String> allowed = new LinkedHashSet<>();
+        options.forEach(option -> allowed.add(option.asText()));
+
+        if (allowed.isEmpty()) {
+            return value -> value.isValueNode() ? null : "must be a single value";
+        }
+        String message = "must be one of " + allowed;
+        return value -> value.isValueNode() && allowed.contains(value.asText()) ? null : message;
+    }
+
+    private static Function<JsonNode, String> imagesCheck(int maxImages) {
+        return value -> {
+            if (!value.isArray()) {
+                return "must be a list of image URLs";
+            }
+            if (maxImages > 0 && value.size() > maxImages) {
+                return "allows at most " + maxImages + " images";
+            }
+            for (JsonNode image : value) {
+                if (!image.isTextual()) {
+                    return "must be a list of image URLs";
+                }
+            }
+            return null;
+        };
+    }
+
+    private static boolean isNumeric(JsonNode value) {
+        if (!value.isTextual()) {
+            return false;
+        }
+        try {
+            new BigDecimal(value.asText().trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBooleanText(JsonNode value) {
+        return value.isTextual() && ("true".equals(value.asText()) || "false".equals(value.asText()));
+    }
+
+    private record Field(String name, boolean required, boolean hasDefault, Function<JsonNode, String> check) {
+    }
+}
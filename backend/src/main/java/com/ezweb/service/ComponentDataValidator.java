@@ -0,0 +1,71 @@
+package com.ezweb.service;
+
+import com.ezweb.config.CacheConfig;
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.mapper.ComponentRegistryMapper;
+import com.ezweb.model.ComponentRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Checks website component data against its registry schema. Compiled schemas
+ * are cached by registry id and version, so a save costs one parse of the data
+ * and a walk over the declared fields.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComponentDataValidator {
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    public void validate(ComponentRegistry registry, String schemaData) {
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(schemaData);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Schema data must be valid JSON");
+        }
+        validate(registry, data);
+    }
+
+    public void validate(ComponentRegistry registry, JsonNode data) {
+        List<String> errors = compiled(registry).validate(data);
+        if (!errors.isEmpty()) {
+            throw new BadRequestException("Invalid data for " + registry.getName() + ": " + String.join("; ", errors));
+        }
+    }
+
+    // Called before the registry entry changes, so the key is still the one it was cached under
+    public void evict(ComponentRegistry registry) {
+        log.debug("Evicting compiled schema for component: {}", ComponentRegistryMapper.registryKey(registry));
+        schemas().evict(ComponentRegistryMapper.registryKey(registry));
+    }
+
+    private ComponentDataSchema compiled(ComponentRegistry registry) {
+        return schemas().get(ComponentRegistryMapper.registryKey(registry), () -> compile(registry));
+    }
+
+    // A registry entry whose schema cannot be read accepts any data rather than blocking every save
+    private ComponentDataSchema compile(ComponentRegistry registry) {
+        try {
+            return ComponentDataSchema.compile(objectMapper.readTree(registry.getSchema()));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Schema of component {} could not be compiled, data will not be validated", registry.getName(), e);
+            return ComponentDataSchema.PERMISSIVE;
+        }
+    }
+
+    private Cache schemas() {
+        return cacheManager.getCache(CacheConfig.COMPONENT_SCHEMAS);
+    }
+}
@@ -2,14 +2,19 @@ package com.ezweb.service;
 
 import com.ezweb.dto.ComponentRegistryRequest;
 import com.ezweb.dto.ComponentRegistryResponse;
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.exception.ResourceNotFoundException;
+import com.ezweb.mapper.ComponentRegistryMapper;
 import com.ezweb.model.ComponentRegistry;
 import com.ezweb.repository.ComponentRegistryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,7 +22,10 @@ import java.util.stream.Collectors;
 public class ComponentRegistryService {
 
     private final ComponentRegistryRepository componentRegistryRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final ComponentRegistryMapper componentRegistryMapper;
+    private final ObjectMapper objectMapper;
+    private final ComponentDataValidator componentDataValidator;
+    private final PageSnapshotCache pageSnapshotCache;
 
     @Transactional
     public ComponentRegistryResponse createComponent(ComponentRegistryRequest request) {
@@ -33,6 +41,7 @@ public class ComponentRegistryService {
         component.setSchema(request.getSchema());
         component.setCategory(request.getCategory());
         component.setVersion(request.getVersion());
+        component.getPublishedVersions().add(request.getVersion());
         component.setActive(true);
 
         ComponentRegistry savedComponent = componentRegistryRepository.save(component);
@@ -72,6 +81,20 @@ public class ComponentRegistryService {
         return mapToResponse(component);
     }
 
+    /**
+     * The entry as published under id@version, for responses cached indefinitely.
+     */
+    @Transactional(readOnly = true)
+    public ComponentRegistryResponse getComponentVersion(Long id, String version) {
+        ComponentRegistry component = componentRegistryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Component not found"));
+
+        if (!version.equals(component.getVersion())) {
+            throw new ResourceNotFoundException("Component version not found");
+        }
+        return componentRegistryMapper.toVersionedResponse(component);
+    }
+
     @Transactional
     public ComponentRegistryResponse updateComponent(Long id, ComponentRegistryRequest request) {
         ComponentRegistry component = componentRegistryRepository.findById(id)
@@ -83,14 +106,37 @@ public class ComponentRegistryService {
             throw new RuntimeException("Component name already exists");
         }
 
+        // Clients cache registry entries by id and version, so a published version stays immutable
+        boolean contentChanged = !sameJson(component.getSchema(), request.getSchema()) ||
+                !Objects.equals(component.getS3FileUrl(), request.getS3FileUrl()) ||
+                !Objects.equals(component.getName(), request.getName()) ||
+                !Objects.equals(component.getDescription(), request.getDescription()) ||
+                !Objects.equals(component.getCategory(), request.getCategory());
+        boolean versionChanged = !Objects.equals(component.getVersion(), request.getVersion());
+        if (contentChanged && !versionChanged) {
+            throw new BadRequestException("Version must change when any published field changes");
+        }
+        if (versionChanged && component.getPublishedVersions().contains(request.getVersion())) {
+            throw new BadRequestException("Version " + request.getVersion() + " was already published for this component");
+        }
+
+        componentDataValidator.evict(component);
         component.setName(request.getName());
         component.setDescription(request.getDescription());
         component.setS3FileUrl(request.getS3FileUrl());
         component.setSchema(request.getSchema());
         component.setCategory(request.getCategory());
         component.setVersion(request.getVersion());
+        if (versionChanged) {
+            // Entries created before versions were recorded only know their current one
+            if (!component.getPublishedVersions().contains(component.getVersion())) {
+                component.getPublishedVersions().add(component.getVersion());
+            }
+            component.getPublishedVersions().add(request.getVersion());
+        }
 
         ComponentRegistry updatedComponent = componentRegistryRepository.save(component);
+        pageSnapshotCache.evictAll();
 
         return mapToResponse(updatedComponent);
     }
@@ -101,6 +147,8 @@ public class ComponentRegistryService {
                 .orElseThrow(() -> new RuntimeException("Component not found"));
 
         componentRegistryRepository.delete(component);
+        componentDataValidator.evict(component);
+        pageSnapshotCache.evictAll();
     }
 
     @Transactional
@@ -110,9 +158,19 @@ public class ComponentRegistryService {
 
         component.setActive(false);
         componentRegistryRepository.save(component);
+        pageSnapshotCache.evictAll();
     }
 
     private ComponentRegistryResponse mapToResponse(ComponentRegistry component) {
-        return modelMapper.map(component, ComponentRegistryResponse.class);
+        return componentRegistryMapper.toResponse(component);
+    }
+
+    // jsonb normalizes whitespace and key order, so compare documents rather than text
+    private boolean sameJson(String stored, String requested) {
+        try {
+            return objectMapper.readTree(stored).equals(objectMapper.readTree(requested));
+        } catch (JsonProcessingException e) {
+            return false;
+        }
     }
 }
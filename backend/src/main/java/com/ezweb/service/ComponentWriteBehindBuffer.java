@@ -0,0 +1,218 @@
+package com.ezweb.service;
+
+import com.ezweb.dto.WebsiteComponentRequest;
+import com.ezweb.dto.WriteBehindStatsResponse;
+import com.ezweb.model.WebsiteComponent;
+import com.ezweb.repository.WebsiteComponentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Opt-in write-behind for website component updates. While enabled, an update
+ * replaces any pending update to the same component in memory, and the latest
+ * state is written once the component has been quiet for
+ * {@code components.write-behind.window}, or after {@code max-delay} of
+ * continuous editing, in batched transactions.
+ *
+ * Pending updates are held per node. Owner reads and other component writes on a
+ * website flush its pending updates first, so an editor always reads their own
+ * writes; public storefront reads can lag until the next flush. Pending updates
+ * are flushed on shutdown, after the web server has stopped taking requests.
+ *
+ * A flush overwrites the row without comparing versions, so it wins over any
+ * write made elsewhere while the update was buffered, e.g. on another node.
+ */
+@Component
+@Slf4j
+public class ComponentWriteBehindBuffer {
+
+    private final WebsiteComponentRepository websiteComponentRepository;
+    private final PageSnapshotCache pageSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    // Held while draining and writing, so a read-your-writes flush waits for a scheduled one in progress
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicLong updatesReceived = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile boolean closed;
+
+    @Value("${components.write-behind.enabled}")
+    private boolean enabled;
+
+    @Value("${components.write-behind.window}")
+    private Duration window;
+
+    @Value("${components.write-behind.max-delay}")
+    private Duration maxDelay;
+
+    @Value("${components.write-behind.batch-size}")
+    private int batchSize;
+
+    public ComponentWriteBehindBuffer(WebsiteComponentRepository websiteComponentRepository,
+                                      PageSnapshotCache pageSnapshotCache,
+                                      PlatformTransactionManager transactionManager) {
+        this.websiteComponentRepository = websiteComponentRepository;
+        this.pageSnapshotCache = pageSnapshotCache;
+        // Flushes may be triggered from inside a request's transaction and must commit on their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Buffers the update if write-behind is enabled. The caller has already checked
+     * ownership and validated the data.
+     *
+     * @return false when the caller should write the update itself
+     */
+    public boolean offer(WebsiteComponent component, WebsiteComponentRequest request) {
+        if (!enabled || closed) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        PendingUpdate update = new PendingUpdate(component.getWebsite().getId(), component.getWebsite().getSubdomain(),
+                request.getSchemaData(), request.getPosition(), request.getVisible(), now, now);
+        pending.merge(component.getId(), update, (previous, latest) -> latest.since(previous.firstQueued()));
+        updatesReceived.incrementAndGet();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${components.write-behind.flush-interval}")
+    public void flushDue() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        flush(update -> now - update.lastQueued() >= window.toNanos() || now - update.firstQueued() >= maxDelay.toNanos());
+    }
+
+    /**
+     * Writes every pending update for the website before returning. Callers check
+     * that the website belongs to the current user first.
+     */
+    public void flushWebsite(Long websiteId) {
+        if (!hasPendingWrites()) {
+            return;
+        }
+        flush(update -> update.websiteId().equals(websiteId));
+    }
+
+    // Nothing pending and no flush mid-write means the database is already current
+    public boolean hasPendingWrites() {
+        return !pending.isEmpty() || writeLock.isLocked();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} buffered component updates before shutdown", pending.size());
+            flush(update -> true);
+        }
+    }
+
+    public WriteBehindStatsResponse getStats() {
+        long received = updatesReceived.get();
+        long written = rowsWritten.get();
+        return new WriteBehindStatsResponse(enabled, pending.size(), received, written, flushes.get(), failures.get(),
+                written > 0 ? (double) received / written : null);
+    }
+
+    private void flush(Predicate<PendingUpdate> due) {
+        writeLock.lock();
+        try {
+            Map<Long, PendingUpdate> batch = new LinkedHashMap<>();
+            for (Map.Entry<Long, PendingUpdate> entry : pending.entrySet()) {
+                // remove(key, value) leaves an update that arrived after we looked for the next flush
+                if (due.test(entry.getValue()) && pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Map<Long, PendingUpdate> batch) {
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                rowsWritten.addAndGet(transactionTemplate.execute(status -> apply(chunk, batch)));
+            } catch (CannotCreateTransactionException e) {
+                // No connection: retrying row by row would only wait out the same timeout for each row
+                log.warn("Buffered component updates could not be written, keeping them for the next flush: {}",
+                        e.getMessage());
+                failures.incrementAndGet();
+                ids.subList(from, ids.size()).forEach(id -> pending.putIfAbsent(id, batch.get(id)));
+                break;
+            } catch (RuntimeException e) {
+                // Retry one by one so a single conflicting row does not drop the rest of the chunk
+                log.warn("Buffered component update batch failed, retrying individually: {}", e.getMessage());
+                for (Long id : chunk) {
+                    try {
+                        rowsWritten.addAndGet(transactionTemplate.execute(status -> apply(List.of(id), batch)));
+                    } catch (RuntimeException single) {
+                        failures.incrementAndGet();
+                        log.error("Dropping buffered update for component {}", id, single);
+                    }
+                }
+            }
+        }
+        flushes.incrementAndGet();
+
+        Set<String> subdomains = new HashSet<>();
+        batch.values().forEach(update -> subdomains.add(update.subdomain()));
+        subdomains.forEach(pageSnapshotCache::evict);
+        log.debug("Flushed {} buffered component updates", batch.size());
+    }
+
+    // Dirty checking writes the changes as one JDBC batch at commit; deleted components are skipped.
+    // Last writer wins: the row's current version is not compared with the one the update was based on
+    private int apply(List<Long> ids, Map<Long, PendingUpdate> batch) {
+        List<WebsiteComponent> components = websiteComponentRepository.findAllById(ids);
+        for (WebsiteComponent component : components) {
+            PendingUpdate update = batch.get(component.getId());
+            component.setSchemaData(update.schemaData());
+            component.setPosition(update.position());
+            component.setVisible(update.visible());
+        }
+        return components.size();
+    }
+
+    private record PendingUpdate(Long websiteId, String subdomain, String schemaData, Integer position,
+                                 Boolean visible, long firstQueued, long lastQueued) {
+
+        private PendingUpdate since(long queued) {
+            return new PendingUpdate(websiteId, subdomain, schemaData, position, visible, queued, lastQueued);
+        }
+    }
+}
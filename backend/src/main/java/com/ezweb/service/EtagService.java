@@ -0,0 +1,178 @@
+package com.ezweb.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Computes strong ETags for read endpoints from a single aggregate query over
+ * ids, versions and update timestamps, so a conditional GET can be answered
+ * without loading or serializing the payload.
+ *
+ * Controllers compute the tag before loading the body, so a concurrent write can
+ * only leave the tag older than the body, which costs a full response later but
+ * never makes a client keep stale data.
+ *
+ * Every method returns null when the website does not exist or the caller does
+ * not own it; the controller then falls through to the normal service call and
+ * its error handling.
+ */
+@Service
+@RequiredArgsConstructor
+public class EtagService {
+
+    // Bump when a response shape changes so cached representations are dropped
+    private static final String FORMAT = "v1";
+
+    private static final String WEBSITE_STATE = "w.id, w.version, w.updated_at";
+
+    private static final String USER_WEBSITES_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(w.id), 0), COALESCE(SUM(w.version), 0), MAX(w.updated_at) " +
+            "FROM websites w WHERE w.user_id = ?";
+
+    private static final String COMPONENTS_STATE =
+            "COUNT(wc.id), COALESCE(SUM(wc.id), 0), COALESCE(SUM(wc.version), 0), MAX(wc.updated_at), " +
+            "COALESCE(SUM(cr.id), 0), MAX(cr.updated_at)";
+
+    private static final String COMPONENTS_JOIN =
+            "LEFT JOIN website_components wc ON wc.website_id = w.id%s " +
+            "LEFT JOIN component_registry cr ON cr.id = wc.component_registry_id";
+
+    private static final String PRODUCTS_STATE =
+            "COUNT(p.id), COALESCE(SUM(p.id), 0), COALESCE(SUM(p.version), 0), MAX(p.updated_at), " +
+            "COALESCE(SUM(c.version), 0), MAX(c.updated_at), MAX(s.updated_at)";
+
+    private static final String PRODUCTS_JOIN =
+            "LEFT JOIN products p ON p.website_id = w.id%s " +
+            "LEFT JOIN categories c ON c.id = p.category_id " +
+            "LEFT JOIN sub_categories s ON s.id = p.sub_category_id";
+
+    // Category rows repeat once per sub-category, which is still a pure function of the data
+    private static final String CATEGORIES_STATE =
+            "COUNT(DISTINCT c.id), COALESCE(SUM(DISTINCT c.id), 0), COALESCE(SUM(c.version), 0), MAX(c.updated_at), " +
+            "COUNT(s.id), COALESCE(SUM(s.id), 0), MAX(s.updated_at)";
+
+    private static final String CATEGORIES_JOIN =
+            "LEFT JOIN categories c ON c.website_id = w.id%s " +
+            "LEFT JOIN sub_categories s ON s.category_id = c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public String userWebsitesTag(Long userId) {
+        return tag("websites", USER_WEBSITES_SQL, userId);
+    }
+
+    public String websiteTag(Long websiteId, Long userId) {
+        return tag("website", "SELECT " + WEBSITE_STATE + " FROM websites w WHERE w.id = ? AND w.user_id = ?",
+                websiteId, userId);
+    }
+
+    public String websiteTag(String subdomain) {
+        return tag("website", "SELECT " + WEBSITE_STATE + " FROM websites w WHERE w.subdomain = ?", subdomain);
+    }
+
+    /**
+     * @param userId owner to check, or null for the public listing
+     */
+    public String componentsTag(Long websiteId, Long userId, boolean visibleOnly) {
+        String join = COMPONENTS_JOIN.formatted(visibleOnly ? " AND wc.visible = true" : "");
+        return websiteScoped("components:" + visibleOnly, COMPONENTS_STATE, join, new ArrayList<>(), websiteId, userId);
+    }
+
+    /**
+     * @param userId owner to check, or null for the public listing
+     */
+    public String productsTag(Long websiteId, Long userId, boolean availableOnly) {
+        String join = PRODUCTS_JOIN.formatted(availableOnly ? " AND p.available = true" : "");
+        return websiteScoped("products:" + availableOnly, PRODUCTS_STATE, join, new ArrayList<>(), websiteId, userId);
+    }
+
+    public String availableProductsTag(String subdomain) {
+        String sql = "SELECT " + PRODUCTS_STATE + " FROM websites w " +
+                PRODUCTS_JOIN.formatted(" AND p.available = true") + " WHERE w.subdomain = ? GROUP BY w.id";
+        return tag("products:true", sql, subdomain);
+    }
+
+    public String productsByCategoryTag(Long websiteId, String category) {
+        List<Object> args = new ArrayList<>();
+        args.add(category);
+        return websiteScoped("products:category", PRODUCTS_STATE, PRODUCTS_JOIN.formatted(" AND p.category = ?"),
+                args, websiteId, null);
+    }
+
+    public String categoriesTag(Long websiteId, boolean activeOnly) {
+        String join = CATEGORIES_JOIN.formatted(activeOnly ? " AND c.active = true" : "");
+        return websiteScoped("categories:" + activeOnly, CATEGORIES_STATE, join, new ArrayList<>(), websiteId, null);
+    }
+
+    /**
+     * The category tree carries available product counts, so its tag covers both.
+     */
+    public String categoryTreeTag(Long websiteId) {
+        String categories = categoriesTag(websiteId, false);
+        return categories == null ? null : variant(categories, "tree:" + productsTag(websiteId, null, true));
+    }
+
+    /**
+     * Tag for a single component at the given version, as sent with the component
+     * and compared against If-Match on PATCH. Needs no query since the version
+     * changes on every write.
+     */
+    public String componentTag(Long componentId, Long version) {
+        return version == null ? null : "\"" + hash(FORMAT + ":component:" + componentId + "|" + version) + "\"";
+    }
+
+    /**
+     * Tag for another representation of the same data, e.g. a compact view or a
+     * response that depends on request parameters.
+     */
+    public String variant(String tag, String qualifier) {
+        return tag == null ? null : "\"" + hash(tag + "|" + qualifier) + "\"";
+    }
+
+    // Grouping by the website row yields no row at all when it is missing or not owned
+    private String websiteScoped(String scope, String state, String join, List<Object> args,
+                                 Long websiteId, Long userId) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(state).append(" FROM websites w ")
+                .append(join).append(" WHERE w.id = ?");
+        args.add(websiteId);
+        if (userId != null) {
+            sql.append(" AND w.user_id = ?");
+            args.add(userId);
+        }
+        sql.append(" GROUP BY w.id");
+        return tag(scope, sql.toString(), args.toArray());
+    }
+
+    private String tag(String scope, String sql, Object... args) {
+        String state = jdbcTemplate.query(sql, (ResultSet rs) -> rs.next() ? describe(scope, rs) : null, args);
+        return state == null ? null : "\"" + hash(state) + "\"";
+    }
+
+    private static String describe(String scope, ResultSet rs) throws SQLException {
+        StringBuilder state = new StringBuilder(FORMAT).append(':').append(scope);
+        int columns = rs.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            state.append('|').append(rs.getString(i));
+        }
+        return state.toString();
+    }
+
+    private static String hash(String state) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
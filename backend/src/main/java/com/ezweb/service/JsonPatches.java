@@ -0,0 +1,150 @@
+package com.ezweb.service;
+
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+
+/**
+ * RFC 7396 merge patch and RFC 6902 JSON Patch over Jackson trees. Both modify
+ * the target in place and return the patched document, which is a different
+ * node when the root itself is replaced.
+ */
+final class JsonPatches {
+
+    private JsonPatches() {
+    }
+
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+
+        ObjectNode result = target instanceof ObjectNode object ? object : JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonNode> entry : patch.properties()) {
+            if (entry.getValue().isNull()) {
+                result.remove(entry.getKey());
+            } else {
+                result.set(entry.getKey(), mergePatch(result.get(entry.getKey()), entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    // Operations apply in order; a failing one aborts the patch and the caller discards the tree
+    static JsonNode jsonPatch(JsonNode target, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw new BadRequestException("JSON Patch must be an array of operations");
+        }
+
+        JsonNode document = target;
+        for (JsonNode operation : operations) {
+            String op = operation.path("op").asText();
+            JsonPointer path = pointer(operation, "path");
+            document = switch (op) {
+                case "add" -> add(document, path, value(operation));
+                case "remove" -> {
+                    remove(document, path);
+                    yield document;
+                }
+                case "replace" -> {
+                    require(document, path);
+                    yield add(remove(document, path), path, value(operation));
+                }
+                case "move" -> {
+                    JsonPointer from = pointer(operation, "from");
+                    if (path.toString().startsWith(from.toString() + "/")) {
+                        throw new BadRequestException("Cannot move " + from + " into its own child " + path);
+                    }
+                    JsonNode value = require(document, from);
+                    yield add(remove(document, from), path, value);
+                }
+                case "copy" -> add(document, path, require(document, pointer(operation, "from")).deepCopy());
+                case "test" -> {
+                    if (!require(document, path).equals(value(operation))) {
+                        throw new ConflictException("Patch test failed at " + path);
+                    }
+                    yield document;
+                }
+                default -> throw new BadRequestException("Unsupported patch operation: " + op);
+            };
+        }
+        return document;
+    }
+
+    private static JsonNode add(JsonNode document, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+
+        JsonNode parent = document.at(path.head());
+        String key = path.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.set(key, value);
+        } else if (parent instanceof ArrayNode array) {
+            array.insert("-".equals(key) ? array.size() : index(array, key, array.size()), value);
+        } else {
+            throw new BadRequestException("Patch path does not exist: " + path);
+        }
+        return document;
+    }
+
+    // Replacing the root removes it first, so the next add supplies the new document
+    private static JsonNode remove(JsonNode document, JsonPointer path) {
+        if (path.matches()) {
+            return JsonNodeFactory.instance.missingNode();
+        }
+
+        require(document, path);
+        JsonNode parent = document.at(path.head());
+        String key = path.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.remove(key);
+        } else {
+            ((ArrayNode) parent).remove(index((ArrayNode) parent, key, parent.size() - 1));
+        }
+        return document;
+    }
+
+    private static JsonNode require(JsonNode document, JsonPointer path) {
+        JsonNode node = document.at(path);
+        if (node.isMissingNode()) {
+            throw new BadRequestException("Patch path does not exist: " + path);
+        }
+        return node;
+    }
+
+    private static int index(ArrayNode array, String token, int max) {
+        // RFC 6901 indexes are plain decimal digits without leading zeros
+        boolean decimal = !token.isEmpty() && token.length() <= 9 && token.chars().allMatch(Character::isDigit)
+                && (token.length() == 1 || token.charAt(0) != '0');
+        if (decimal && Integer.parseInt(token) <= max) {
+            return Integer.parseInt(token);
+        }
+        throw new BadRequestException("Invalid array index '" + token + "' for an array of " + array.size());
+    }
+
+    private static JsonPointer pointer(JsonNode operation, String member) {
+        JsonNode path = operation.get(member);
+        if (path == null || !path.isTextual()) {
+            throw new BadRequestException("Patch operation is missing '" + member + "'");
+        }
+        try {
+            return JsonPointer.compile(path.asText());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid JSON pointer: " + path.asText());
+        }
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw new BadRequestException("Patch operation is missing 'value'");
+        }
+        return operation.get("value");
+    }
+}
@@ -0,0 +1,248 @@
+package com.ezweb.service;
+
+import com.ezweb.model.Media;
+import com.ezweb.model.MediaDerivativeJob;
+import com.ezweb.model.MediaVariant;
+import com.ezweb.repository.MediaDerivativeJobRepository;
+import com.ezweb.repository.MediaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Generates resized copies of image media. Jobs live in media_derivative_jobs so
+ * pending work survives restarts and is shared between nodes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaDerivativeService {
+
+    private final MediaRepository mediaRepository;
+    private final MediaDerivativeJobRepository jobRepository;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${media.derivatives.widths}")
+    private int[] widths;
+
+    @Value("${media.derivatives.jpeg-quality}")
+    private float jpegQuality;
+
+    @Value("${media.derivatives.max-pixels}")
+    private long maxPixels;
+
+    @Value("${media.derivatives.max-source-size}")
+    private DataSize maxSourceSize;
+
+    @Value("${media.derivatives.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${media.derivatives.stale-after}")
+    private Duration staleAfter;
+
+    public void enqueue(Media media) {
+        if (media.getType() != Media.MediaType.IMAGE) {
+            return;
+        }
+
+        MediaDerivativeJob job = new MediaDerivativeJob();
+        job.setMediaId(media.getId());
+        jobRepository.save(job);
+    }
+
+    /**
+     * Mark up to limit due jobs RUNNING and hand them to the caller
+     */
+    public List<MediaDerivativeJob> claimJobs(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MediaDerivativeJob> jobs = jobRepository.findClaimable(now, now.minus(staleAfter), limit);
+            for (MediaDerivativeJob job : jobs) {
+                job.setStatus(MediaDerivativeJob.JobStatus.RUNNING);
+                job.setUpdatedAt(now);
+            }
+            return jobs;
+        });
+    }
+
+    public void process(MediaDerivativeJob job) {
+        try {
+            Media media = mediaRepository.findById(job.getMediaId()).orElse(null);
+            List<MediaVariant> variants = media != null && media.getType() == Media.MediaType.IMAGE
+                    && media.getStatus() == Media.MediaStatus.READY
+                    ? generateVariants(media)
+                    : List.of();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!variants.isEmpty()) {
+                    mediaRepository.findById(job.getMediaId()).ifPresent(current -> {
+                        current.getVariants().clear();
+                        current.getVariants().addAll(variants);
+                    });
+                }
+                job.setStatus(MediaDerivativeJob.JobStatus.DONE);
+                job.setLastError(null);
+                jobRepository.save(job);
+            });
+        } catch (Exception e) {
+            log.error("Derivative job {} for media {} failed: {}", job.getId(), job.getMediaId(), e.getMessage());
+
+            int attempts = job.getAttempts() + 1;
+            job.setAttempts(attempts);
+            job.setLastError(e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000)
+                    : e.getMessage());
+            if (attempts >= maxAttempts) {
+                job.setStatus(MediaDerivativeJob.JobStatus.FAILED);
+            } else {
+                job.setStatus(MediaDerivativeJob.JobStatus.PENDING);
+                job.setNextAttemptAt(LocalDateTime.now().plusMinutes(attempts));
+            }
+            jobRepository.save(job);
+        }
+    }
+
+    private List<MediaVariant> generateVariants(Media media) throws IOException {
+        String key = s3Service.extractKey(media.getS3Url());
+        Long size = media.getSize();
+        if (size == null) {
+            HeadObjectResponse head = s3Service.headFile(key);
+            if (head == null) {
+                return List.of();
+            }
+            size = head.contentLength();
+        }
+        if (size > maxSourceSize.toBytes()) {
+            log.warn("Skipping derivatives for media {} of {} bytes", media.getId(), size);
+            return List.of();
+        }
+
+        BufferedImage source;
+        try (ResponseInputStream<GetObjectResponse> content = s3Service.openFile(key)) {
+            source = decode(content);
+            if (source == null) {
+                // Stop the transfer instead of draining the rest of a skipped original
+                content.abort();
+                return List.of();
+            }
+        }
+
+        // Keep transparency where the source has it, otherwise JPEG is far smaller
+        boolean alpha = source.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpeg";
+        String mimeType = alpha ? "image/png" : "image/jpeg";
+        String extension = alpha ? ".png" : ".jpg";
+
+        List<MediaVariant> variants = new ArrayList<>();
+        for (int width : widths) {
+            // Never upscale
+            if (width >= source.getWidth()) {
+                continue;
+            }
+
+            int height = Math.max(1, Math.round(source.getHeight() * (float) width / source.getWidth()));
+            byte[] encoded = encode(resize(source, width, height, alpha), format);
+
+            String variantKey = s3Service.variantPrefix(key) + width + extension;
+            s3Service.uploadFile(encoded, variantKey, mimeType);
+            variants.add(new MediaVariant(width, height, mimeType, s3Service.getFileUrl(variantKey), (long) encoded.length));
+        }
+        return variants;
+    }
+
+    // Reads only the header until the dimensions pass the pixel cap
+    private BufferedImage decode(InputStream content) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                // Not a format the JDK can decode (SVG, WebP, ...); serve the original only
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+
+                // Check dimensions from the header before allocating the raster
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Skipping derivatives for {} pixel image", pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+
+        // Halve in steps so bilinear sampling does not skip source pixels
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpeg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ezweb.service;
+
+import com.ezweb.config.MediaDerivativeConfig;
+import com.ezweb.model.MediaDerivativeJob;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MediaDerivativeWorker {
+
+    private final MediaDerivativeService mediaDerivativeService;
+    private final ThreadPoolTaskExecutor mediaDerivativeExecutor;
+
+    @Value("${media.derivatives.batch-size}")
+    private int batchSize;
+
+    public MediaDerivativeWorker(MediaDerivativeService mediaDerivativeService,
+                                 @Qualifier(MediaDerivativeConfig.MEDIA_DERIVATIVE_EXECUTOR)
+                                 ThreadPoolTaskExecutor mediaDerivativeExecutor) {
+        this.mediaDerivativeService = mediaDerivativeService;
+        this.mediaDerivativeExecutor = mediaDerivativeExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${media.derivatives.poll-interval}")
+    public void poll() {
+        // Only claim what can start now; everything else stays PENDING for any node to pick up
+        int idle = mediaDerivativeExecutor.getMaxPoolSize()
+                - mediaDerivativeExecutor.getActiveCount()
+                - mediaDerivativeExecutor.getQueueSize();
+        if (idle <= 0) {
+            return;
+        }
+
+        for (MediaDerivativeJob job : mediaDerivativeService.claimJobs(Math.min(idle, batchSize))) {
+            mediaDerivativeExecutor.execute(() -> mediaDerivativeService.process(job));
+        }
+    }
+}
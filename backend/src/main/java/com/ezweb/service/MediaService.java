@@ -1,46 +1,223 @@
 package com.ezweb.service;
 
+import com.ezweb.config.MediaUploadConfig;
+import com.ezweb.dto.MediaUploadIntentRequest;
+import com.ezweb.dto.MediaUploadIntentResponse;
+import com.ezweb.exception.BadRequestException;
 import com.ezweb.model.Media;
 import com.ezweb.model.Website;
 import com.ezweb.repository.MediaRepository;
 import com.ezweb.repository.WebsiteRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class MediaService {
 
     private final MediaRepository mediaRepository;
     private final WebsiteRepository websiteRepository;
     private final S3Service s3Service;
+    private final MediaDerivativeService mediaDerivativeService;
+    private final S3DeletionService s3DeletionService;
+    private final TaskExecutor mediaUploadExecutor;
+    private final ObjectKeyLocks objectKeyLocks;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
-    public Media uploadFile(MultipartFile file, String folder, Long userId) throws IOException {
-        // Upload to S3
-        String s3Url = s3Service.uploadFile(file, folder);
+    @Value("${media.direct-upload.max-size}")
+    private DataSize directUploadMaxSize;
+
+    @Value("${media.direct-upload.url-ttl}")
+    private Duration directUploadUrlTtl;
 
-        // Determine media type
-        Media.MediaType mediaType = determineMediaType(file.getContentType());
+    public MediaService(MediaRepository mediaRepository,
+                        WebsiteRepository websiteRepository,
+                        S3Service s3Service,
+                        MediaDerivativeService mediaDerivativeService,
+                        S3DeletionService s3DeletionService,
+                        @Qualifier(MediaUploadConfig.MEDIA_UPLOAD_EXECUTOR) TaskExecutor mediaUploadExecutor,
+                        ObjectKeyLocks objectKeyLocks,
+                        TransactionTemplate transactionTemplate) {
+        this.mediaRepository = mediaRepository;
+        this.websiteRepository = websiteRepository;
+        this.s3Service = s3Service;
+        this.mediaDerivativeService = mediaDerivativeService;
+        this.s3DeletionService = s3DeletionService;
+        this.mediaUploadExecutor = mediaUploadExecutor;
+        this.objectKeyLocks = objectKeyLocks;
+        this.transactionTemplate = transactionTemplate;
+    }
 
+    public MediaUpload uploadFile(MultipartFile file, String folder, Long userId) throws IOException {
         // Create media record without website association
+        return startUpload(null, file, folder);
+    }
+
+    public MediaUpload uploadMedia(Long websiteId, MultipartFile file, Long userId) throws IOException {
+        // Get website and verify ownership
+        Website website = websiteRepository.findById(websiteId)
+                .orElseThrow(() -> new RuntimeException("Website not found"));
+
+        if (!website.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to website");
+        }
+
+        // Website media shares one content-addressed folder so identical files are stored once
+        return startUpload(website, file, "media");
+    }
+
+    /**
+     * Record the media row as UPLOADING and hand the S3 transfer to the upload pool.
+     * No transaction or request thread is held while S3 is written to.
+     */
+    private MediaUpload startUpload(Website website, MultipartFile file, String folder) throws IOException {
+        // Spool the body to our own temp file, hashing it on the way;
+        // the multipart part is deleted when the request ends
+        Path spooled = Files.createTempFile("media-upload-", ".part");
+        String contentHash;
+        try (InputStream in = file.getInputStream()) {
+            contentHash = spool(in, spooled);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        String key = s3Service.contentObjectKey(folder, contentHash, file.getOriginalFilename());
+
         Media media = new Media();
+        media.setWebsite(website);
         media.setFilename(file.getOriginalFilename());
-        media.setS3Url(s3Url);
-        media.setType(mediaType);
+        media.setS3Url(s3Service.getFileUrl(key));
+        media.setContentHash(contentHash);
+        media.setType(determineMediaType(file.getContentType()));
         media.setSize(file.getSize());
         media.setMimeType(file.getContentType());
 
-        return mediaRepository.save(media);
+        // Same bytes already stored: point a new row at the shared object and skip the upload
+        Media saved = saveReference(media, key);
+        if (saved.getStatus() == Media.MediaStatus.READY) {
+            deleteSpooled(spooled);
+            return new MediaUpload(saved, CompletableFuture.completedFuture(saved));
+        }
+
+        CompletableFuture<Media> completion = new CompletableFuture<>();
+        try {
+            mediaUploadExecutor.execute(() -> transfer(saved, spooled, key, completion));
+        } catch (TaskRejectedException e) {
+            deleteSpooled(spooled);
+            mediaRepository.updateStatus(saved.getId(), Media.MediaStatus.FAILED);
+            throw new RuntimeException("Upload queue is full, try again later");
+        }
+
+        return new MediaUpload(saved, completion);
     }
 
-    @Transactional
-    public Media uploadMedia(Long websiteId, MultipartFile file, Long userId) throws IOException {
+    private String spool(InputStream in, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            Files.copy(digestIn, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Save the row for a content-addressed key: READY and sharing the stored object
+     * if S3 already has it, otherwise UPLOADING. Holds the key's lock until the row
+     * commits, so a queued deletion of the same object sees it before deleting.
+     */
+    private Media saveReference(Media media, String key) {
+        return transactionTemplate.execute(status -> {
+            objectKeyLocks.lock(List.of(key));
+            Media existing = findStoredCopy(media.getS3Url(), key);
+            if (existing != null) {
+                return saveSharedCopy(media, existing);
+            }
+            media.setStatus(Media.MediaStatus.UPLOADING);
+            return mediaRepository.save(media);
+        });
+    }
+
+    private Media findStoredCopy(String s3Url, String key) {
+        Media existing = mediaRepository.findFirstByS3UrlAndStatus(s3Url, Media.MediaStatus.READY).orElse(null);
+        // The row may outlive its object if a delete raced with it; only reuse what S3 still has
+        return existing != null && s3Service.fileExists(key) ? existing : null;
+    }
+
+    private Media saveSharedCopy(Media media, Media existing) {
+        media.setStatus(Media.MediaStatus.READY);
+        media.setVariants(new ArrayList<>(existing.getVariants()));
+        Media saved = mediaRepository.save(media);
+
+        // Variants may still be pending on the original row
+        if (saved.getVariants().isEmpty()) {
+            mediaDerivativeService.enqueue(saved);
+        }
+        return saved;
+    }
+
+    private void transfer(Media media, Path spooled, String key, CompletableFuture<Media> completion) {
+        try {
+            s3Service.uploadFile(spooled, key, media.getMimeType());
+            mediaRepository.updateStatus(media.getId(), Media.MediaStatus.READY);
+            media.setStatus(Media.MediaStatus.READY);
+            mediaDerivativeService.enqueue(media);
+            completion.complete(media);
+        } catch (RuntimeException e) {
+            log.error("Upload of media {} failed: {}", media.getId(), e.getMessage());
+            mediaRepository.updateStatus(media.getId(), Media.MediaStatus.FAILED);
+            media.setStatus(Media.MediaStatus.FAILED);
+            completion.completeExceptionally(e);
+        } finally {
+            deleteSpooled(spooled);
+        }
+    }
+
+    private void deleteSpooled(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}: {}", spooled, e.getMessage());
+        }
+    }
+
+    public MediaUploadIntentResponse createUploadIntent(String folder, MediaUploadIntentRequest request, Long userId) {
+        return createUploadIntent(null, folder, request);
+    }
+
+    public MediaUploadIntentResponse createUploadIntent(Long websiteId, MediaUploadIntentRequest request, Long userId) {
         // Get website and verify ownership
         Website website = websiteRepository.findById(websiteId)
                 .orElseThrow(() -> new RuntimeException("Website not found"));
@@ -49,23 +226,95 @@ public class MediaService {
             throw new RuntimeException("Unauthorized access to website");
         }
 
-        // Upload to S3
-        String folder = "media/" + websiteId;
-        String s3Url = s3Service.uploadFile(file, folder);
+        return createUploadIntent(website, "media", request);
+    }
+
+    /**
+     * Record a pending media row and presign a PUT for it, so the client sends the
+     * bytes straight to S3 and the backend never buffers them
+     */
+    private MediaUploadIntentResponse createUploadIntent(Website website, String folder, MediaUploadIntentRequest request) {
+        if (request.getSize() > directUploadMaxSize.toBytes()) {
+            throw new BadRequestException("File exceeds the maximum upload size of " + directUploadMaxSize);
+        }
 
-        // Determine media type
-        Media.MediaType mediaType = determineMediaType(file.getContentType());
+        // With a client-supplied hash the key is content-addressed and S3 rejects a body that does not match it
+        String contentHash = request.getSha256();
+        String key = contentHash != null
+                ? s3Service.contentObjectKey(folder, contentHash, request.getFilename())
+                : s3Service.newObjectKey(folder, request.getFilename());
 
-        // Create media record
         Media media = new Media();
         media.setWebsite(website);
-        media.setFilename(file.getOriginalFilename());
-        media.setS3Url(s3Url);
-        media.setType(mediaType);
-        media.setSize(file.getSize());
-        media.setMimeType(file.getContentType());
+        media.setFilename(request.getFilename());
+        media.setS3Url(s3Service.getFileUrl(key));
+        media.setContentHash(contentHash);
+        media.setType(determineMediaType(request.getContentType()));
+        media.setSize(request.getSize());
+        media.setMimeType(request.getContentType());
+
+        Media saved;
+        if (contentHash != null) {
+            saved = saveReference(media, key);
+            if (saved.getStatus() == Media.MediaStatus.READY) {
+                // Nothing to upload; the returned media is already READY
+                return new MediaUploadIntentResponse(saved, null, Map.of(), null);
+            }
+        } else {
+            media.setStatus(Media.MediaStatus.UPLOADING);
+            saved = mediaRepository.save(media);
+        }
+
+        String checksum = contentHash != null
+                ? Base64.getEncoder().encodeToString(HexFormat.of().parseHex(contentHash))
+                : null;
+        String uploadUrl = s3Service.generatePresignedUploadUrl(key, request.getContentType(), checksum, directUploadUrlTtl);
 
-        return mediaRepository.save(media);
+        // Headers that are part of the signature and must be sent with the PUT
+        Map<String, String> uploadHeaders = new LinkedHashMap<>();
+        if (request.getContentType() != null) {
+            uploadHeaders.put("Content-Type", request.getContentType());
+        }
+        if (checksum != null) {
+            uploadHeaders.put("x-amz-checksum-sha256", checksum);
+        }
+
+        return new MediaUploadIntentResponse(saved, uploadUrl, uploadHeaders, Instant.now().plus(directUploadUrlTtl));
+    }
+
+    /**
+     * Finalize a direct upload from the object S3 actually holds
+     */
+    public Media completeUpload(Long id, Long userId) {
+        Media media = getMediaById(id, userId);
+
+        if (media.getStatus() != Media.MediaStatus.UPLOADING) {
+            throw new BadRequestException("Media upload is not pending");
+        }
+
+        String key = s3Service.extractKey(media.getS3Url());
+        HeadObjectResponse object = s3Service.headFile(key);
+        if (object == null) {
+            throw new BadRequestException("Uploaded file not found in storage");
+        }
+
+        // A presigned PUT cannot cap the body size, so enforce it after the fact
+        if (object.contentLength() > directUploadMaxSize.toBytes()) {
+            s3Service.deleteFile(key);
+            media.setStatus(Media.MediaStatus.FAILED);
+            mediaRepository.save(media);
+            throw new BadRequestException("File exceeds the maximum upload size of " + directUploadMaxSize);
+        }
+
+        media.setSize(object.contentLength());
+        if (object.contentType() != null) {
+            media.setMimeType(object.contentType());
+            media.setType(determineMediaType(object.contentType()));
+        }
+        media.setStatus(Media.MediaStatus.READY);
+        Media saved = mediaRepository.save(media);
+        mediaDerivativeService.enqueue(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -117,15 +366,9 @@ public class MediaService {
             throw new RuntimeException("Unauthorized access to media");
         }
 
-        // Extract key from S3 URL
-        String s3Url = media.getS3Url();
-        String key = extractKeyFromUrl(s3Url);
-
-        // Delete from S3
-        s3Service.deleteFile(key);
-
-        // Delete from database
+        // The object may be shared with other rows; the deletion worker checks before removing it
         mediaRepository.delete(media);
+        s3DeletionService.enqueue(List.of(media.getS3Url()), true);
     }
 
     private Media.MediaType determineMediaType(String contentType) {
@@ -145,13 +388,4 @@ public class MediaService {
             return Media.MediaType.OTHER;
         }
     }
-
-    private String extractKeyFromUrl(String s3Url) {
-        // Extract key from URL like: https://bucket-name.s3.amazonaws.com/key
-        int lastSlash = s3Url.lastIndexOf('/');
-        if (lastSlash != -1) {
-            return s3Url.substring(lastSlash + 1);
-        }
-        return s3Url;
-    }
 }
@@ -0,0 +1,11 @@
+package com.ezweb.service;
+
+import com.ezweb.model.Media;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A media row recorded as UPLOADING, and the transfer that will mark it READY or FAILED.
+ */
+public record MediaUpload(Media media, CompletableFuture<Media> completion) {
+}
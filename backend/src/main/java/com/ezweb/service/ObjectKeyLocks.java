@@ -0,0 +1,35 @@
+package com.ezweb.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+
+/**
+ * Transaction-scoped Postgres advisory locks on S3 object keys. The deletion
+ * drain holds them from its reference check until the objects are gone; uploads
+ * that may reuse a content-addressed key hold them while recording the new
+ * reference, so a drain either sees that reference or finishes deleting first.
+ */
+@Component
+@RequiredArgsConstructor
+public class ObjectKeyLocks {
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtextextended(?, 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taken in key order so two holders of several keys cannot deadlock
+    public void lock(Collection<String> keys) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Object key locks are released at commit and need a transaction");
+        }
+        keys.stream()
+                .distinct()
+                .sorted()
+                .forEach(key -> jdbcTemplate.query(LOCK_SQL, (ResultSet rs) -> null, key));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ezweb.service;
+
+import com.ezweb.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eviction side of the public page snapshot cache. Kept separate from
+ * {@link PageSnapshotService} so write services can evict without depending on it.
+ */
+@Component
+@Slf4j
+public class PageSnapshotCache {
+
+    @CacheEvict(cacheNames = CacheConfig.PAGE_SNAPSHOTS, key = "#subdomain")
+    public void evict(String subdomain) {
+        log.debug("Evicting page snapshot for subdomain: {}", subdomain);
+    }
+
+    // Every snapshot embeds the registry entries its components use
+    @CacheEvict(cacheNames = CacheConfig.PAGE_SNAPSHOTS, allEntries = true)
+    public void evictAll() {
+        log.debug("Evicting all page snapshots");
+    }
+}
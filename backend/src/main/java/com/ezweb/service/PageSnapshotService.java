@@ -0,0 +1,37 @@
+package com.ezweb.service;
+
+import com.ezweb.config.CacheConfig;
+import com.ezweb.dto.PageSnapshotResponse;
+import com.ezweb.dto.ProductPageResponse;
+import com.ezweb.dto.WebsiteComponentResponse;
+import com.ezweb.dto.WebsiteResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PageSnapshotService {
+
+    private final WebsiteService websiteService;
+    private final WebsiteComponentService websiteComponentService;
+    private final ProductService productService;
+
+    /**
+     * Build everything a storefront needs to render a page in one payload.
+     * Cached per subdomain and evicted through {@link PageSnapshotCache} on writes.
+     */
+    @Cacheable(cacheNames = CacheConfig.PAGE_SNAPSHOTS, key = "#subdomain")
+    @Transactional(readOnly = true)
+    public PageSnapshotResponse getPageSnapshot(String subdomain) {
+        WebsiteResponse website = websiteService.getWebsiteBySubdomain(subdomain);
+        List<WebsiteComponentResponse> components =
+                websiteComponentService.getVisibleWebsiteComponents(website.getId());
+        ProductPageResponse products = productService.getAvailableProducts(website.getId());
+
+        return new PageSnapshotResponse(website, components, products.getItems(), products.getHasMore());
+    }
+}
@@ -0,0 +1,309 @@
+package com.ezweb.service;
+
+import com.ezweb.dto.ProductImportError;
+import com.ezweb.dto.ProductImportReport;
+import com.ezweb.dto.ProductRequest;
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.model.Website;
+import com.ezweb.repository.CategoryRepository;
+import com.ezweb.repository.ProductRepository;
+import com.ezweb.repository.WebsiteRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming CSV / NDJSON product import and export. Rows use the same shape as
+ * {@link ProductRequest} in both directions, so an export can be re-imported.
+ *
+ * Imports are written in JDBC batches of {@code products.import.batch-size},
+ * each in its own transaction: a failed import keeps the chunks before it, and
+ * the report lists the rows that were rejected.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBulkService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String EXPORT_SQL =
+            "SELECT name, description, price, image_url, image_urls, stock, available, category, sku, " +
+            "category_id, sub_category_id FROM products WHERE website_id = ? ORDER BY id";
+
+    // Explicit column order for exports; imports map columns by header name
+    private static final CsvSchema EXPORT_SCHEMA = CsvSchema.builder()
+            .addColumn("name")
+            .addColumn("description")
+            .addColumn("price")
+            .addColumn("sku")
+            .addColumn("stock")
+            .addColumn("available")
+            .addColumn("category")
+            .addColumn("categoryId")
+            .addColumn("subCategoryId")
+            .addColumn("imageUrl")
+            .addArrayColumn("imageUrls", "|")
+            .build()
+            .withHeader();
+
+    private static final CsvSchema IMPORT_SCHEMA = CsvSchema.emptySchema()
+            .withHeader()
+            .withArrayElementSeparator("|");
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ProductRepository productRepository;
+    private final WebsiteRepository websiteRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PageSnapshotCache pageSnapshotCache;
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Value("${products.import.batch-size}")
+    private int batchSize;
+
+    @Value("${products.import.max-rows}")
+    private long maxRows;
+
+    @Value("${products.import.max-errors}")
+    private int maxErrors;
+
+    @Value("${products.export.fetch-size}")
+    private int exportFetchSize;
+
+    public ProductImportReport importProducts(Long websiteId, Long userId, InputStream body, MediaType contentType) {
+        Website website = findOwnedWebsite(websiteId, userId);
+        ObjectReader reader = isCsv(contentType)
+                ? csvMapper.readerFor(ProductRequest.class).with(IMPORT_SCHEMA)
+                : objectMapper.readerFor(ProductRequest.class);
+
+        // Resolve every category reference up front instead of a findById per row
+        Set<Long> categoryIds = new HashSet<>();
+        Map<Long, Long> subCategoryParents = new HashMap<>();
+        for (Object[] pair : categoryRepository.findIdPairsByWebsiteId(websiteId)) {
+            categoryIds.add((Long) pair[0]);
+            if (pair[1] != null) {
+                subCategoryParents.put((Long) pair[1], (Long) pair[0]);
+            }
+        }
+
+        ImportRun run = new ImportRun();
+        List<ProductRequest> chunk = new ArrayList<>(batchSize);
+        List<Long> chunkRows = new ArrayList<>(batchSize);
+
+        try (MappingIterator<ProductRequest> rows = reader.readValues(body)) {
+            long rowNumber = 0;
+            while (true) {
+                ProductRequest row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    row = rows.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed syntax leaves no reliable place to resume from
+                    run.reject(rowNumber, "Malformed input, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    run.reject(rowNumber, "Invalid value: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                if (rowNumber > maxRows) {
+                    run.reject(rowNumber, "Import is limited to " + maxRows + " rows, import stopped");
+                    break;
+                }
+
+                String error = validate(row, categoryIds, subCategoryParents);
+                if (error != null) {
+                    run.reject(rowNumber, error);
+                    continue;
+                }
+
+                chunk.add(row);
+                chunkRows.add(rowNumber);
+                if (chunk.size() >= batchSize) {
+                    writeChunk(websiteId, chunk, chunkRows, run);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read product import", e);
+        } finally {
+            if (!chunk.isEmpty()) {
+                writeChunk(websiteId, chunk, chunkRows, run);
+            }
+            if (run.imported > 0) {
+                pageSnapshotCache.evict(website.getSubdomain());
+                categoryTreeCache.evict(websiteId);
+            }
+        }
+
+        log.info("Imported {} products into website {} ({} rejected)", run.imported, websiteId, run.failed);
+        return new ProductImportReport(run.imported, run.failed, run.errors);
+    }
+
+    public StreamingResponseBody exportProducts(Long websiteId, Long userId, MediaType format) {
+        findOwnedWebsite(websiteId, userId);
+        ObjectWriter writer = isCsv(format)
+                ? csvMapper.writerFor(ProductRequest.class).with(EXPORT_SCHEMA)
+                : objectMapper.writerFor(ProductRequest.class).withRootValueSeparator("\n");
+
+        // Runs on the async request thread; the cursor needs a transaction so the driver honours the fetch size
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> readOnly.executeWithoutResult(status -> {
+            try (SequenceWriter rows = writer.writeValues(out)) {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+                    statement.setFetchSize(exportFetchSize);
+                    statement.setLong(1, websiteId);
+                    return statement;
+                }, (RowCallbackHandler) rs -> {
+                    try {
+                        rows.write(toRow(rs));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write product export", e);
+            }
+        });
+    }
+
+    public MediaType exportMediaType(String format) {
+        return switch (format) {
+            case "csv" -> MediaType.parseMediaType(TEXT_CSV_VALUE);
+            case "ndjson" -> MediaType.APPLICATION_NDJSON;
+            default -> throw new BadRequestException("Format must be csv or ndjson");
+        };
+    }
+
+    private void writeChunk(Long websiteId, List<ProductRequest> chunk, List<Long> chunkRows, ImportRun run) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> productRepository.insertBatch(websiteId, chunk));
+            run.imported += chunk.size();
+        } catch (DataAccessException e) {
+            String message = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+            chunkRows.forEach(row -> run.reject(row, message));
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private String validate(ProductRequest row, Set<Long> categoryIds, Map<Long, Long> subCategoryParents) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (row.getCategoryId() != null && !categoryIds.contains(row.getCategoryId())) {
+            return "Category not found with id: " + row.getCategoryId();
+        }
+        if (row.getSubCategoryId() != null) {
+            Long parent = subCategoryParents.get(row.getSubCategoryId());
+            if (parent == null) {
+                return "Sub-category not found with id: " + row.getSubCategoryId();
+            }
+            if (row.getCategoryId() != null && !parent.equals(row.getCategoryId())) {
+                return "Sub-category does not belong to category: " + row.getCategoryId();
+            }
+        }
+        return null;
+    }
+
+    private Website findOwnedWebsite(Long websiteId, Long userId) {
+        Website website = websiteRepository.findById(websiteId)
+                .orElseThrow(() -> new RuntimeException("Website not found"));
+
+        if (!website.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to website");
+        }
+        return website;
+    }
+
+    private static boolean isCsv(MediaType type) {
+        return type.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE));
+    }
+
+    private static ProductRequest toRow(ResultSet rs) throws SQLException {
+        ProductRequest row = new ProductRequest();
+        row.setName(rs.getString("name"));
+        row.setDescription(rs.getString("description"));
+        row.setPrice(rs.getBigDecimal("price"));
+        row.setImageUrl(rs.getString("image_url"));
+        Array imageUrls = rs.getArray("image_urls");
+        row.setImageUrls(imageUrls != null ? Arrays.asList((String[]) imageUrls.getArray()) : null);
+        row.setStock(rs.getInt("stock"));
+        row.setAvailable(rs.getBoolean("available"));
+        row.setCategory(rs.getString("category"));
+        row.setSku(rs.getString("sku"));
+        row.setCategoryId(rs.getObject("category_id", Long.class));
+        row.setSubCategoryId(rs.getObject("sub_category_id", Long.class));
+        return row;
+    }
+
+    private class ImportRun {
+        private long imported;
+        private long failed;
+        private final List<ProductImportError> errors = new ArrayList<>();
+
+        private void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportError(row, message));
+            }
+        }
+    }
+}
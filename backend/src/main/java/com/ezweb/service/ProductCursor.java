@@ -0,0 +1,44 @@
+package com.ezweb.service;
+
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for product listings: the sort key, direction and the
+ * (sort value, id) pair of the last row on the previous page.
+ */
+record ProductCursor(String sort, String direction, Long id, String value) {
+
+    static ProductCursor after(Product last, String sort, String direction) {
+        return new ProductCursor(sort, direction, last.getId(), sortValueOf(last, sort));
+    }
+
+    static ProductCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The value goes last because names may contain the separator
+            String[] parts = decoded.split(":", 4);
+            return new ProductCursor(parts[0], parts[1], Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sort + ":" + direction + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Legacy and bulk-written rows may lack a sort value; it is encoded as empty
+    private static String sortValueOf(Product product, String sort) {
+        Object value = switch (sort) {
+            case "price" -> product.getPrice() != null ? product.getPrice().toPlainString() : null;
+            case "name" -> product.getName();
+            default -> product.getCreatedAt();
+        };
+        return value != null ? value.toString() : "";
+    }
+}
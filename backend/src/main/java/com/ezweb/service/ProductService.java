@@ -1,26 +1,41 @@
 package com.ezweb.service;
 
+import com.ezweb.dto.ProductPageRequest;
+import com.ezweb.dto.ProductPageResponse;
 import com.ezweb.dto.ProductRequest;
 import com.ezweb.dto.ProductResponse;
+import com.ezweb.dto.ProductSearchRequest;
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.mapper.ProductMapper;
 import com.ezweb.model.Product;
 import com.ezweb.model.Website;
 import com.ezweb.model.Category;
 import com.ezweb.model.SubCategory;
 import com.ezweb.repository.ProductRepository;
+import com.ezweb.repository.ProductSpecifications;
 import com.ezweb.repository.WebsiteRepository;
 import com.ezweb.repository.CategoryRepository;
 import com.ezweb.repository.SubCategoryRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,13 +43,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    private static final Pattern SEARCH_TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_SEARCH_TERMS = 8;
+
     private final ProductRepository productRepository;
     private final WebsiteRepository websiteRepository;
     private final CategoryRepository categoryRepository;
     private final SubCategoryRepository subCategoryRepository;
-    private final S3Service s3Service;
-    private final ModelMapper modelMapper = new ModelMapper();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final S3DeletionService s3DeletionService;
+    private final PageSnapshotCache pageSnapshotCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductMapper productMapper;
+
+    @Value("${products.list.max-results}")
+    private int listMaxResults;
 
     @Transactional
     public ProductResponse createProduct(Long websiteId, ProductRequest request, Long userId) {
@@ -53,13 +75,8 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setImageUrl(request.getImageUrl());
 
-        // Convert imageUrls list to JSON string
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            try {
-                product.setImageUrls(objectMapper.writeValueAsString(request.getImageUrls()));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize image URLs", e);
-            }
+            product.setImageUrls(new ArrayList<>(request.getImageUrls()));
         }
 
         product.setStock(request.getStock());
@@ -80,12 +97,18 @@ public class ProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        pageSnapshotCache.evict(website.getSubdomain());
+        categoryTreeCache.evict(websiteId);
 
         return mapToResponse(savedProduct);
     }
 
+    /**
+     * The website's products up to {@code products.list.max-results}; hasMore is
+     * set when the cap cut the list short and the /page endpoint has the rest.
+     */
     @Transactional(readOnly = true)
-    public List<ProductResponse> getWebsiteProducts(Long websiteId, Long userId) {
+    public ProductPageResponse getWebsiteProducts(Long websiteId, Long userId) {
         // Verify website exists and user owns it
         Website website = websiteRepository.findById(websiteId)
                 .orElseThrow(() -> new RuntimeException("Website not found"));
@@ -94,26 +117,61 @@ public class ProductService {
             throw new RuntimeException("Unauthorized access to website");
         }
 
-        List<Product> products = productRepository.findByWebsiteId(websiteId);
-        return products.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return cappedList(productRepository.findByWebsiteIdOrderByIdAsc(websiteId, Limit.of(listMaxResults + 1)));
     }
 
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAvailableProducts(Long websiteId) {
-        List<Product> products = productRepository.findByWebsiteIdAndAvailableTrue(websiteId);
-        return products.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ProductPageResponse getAvailableProducts(Long websiteId) {
+        return cappedList(productRepository.findByWebsiteIdAndAvailableTrueOrderByIdAsc(
+                websiteId, Limit.of(listMaxResults + 1)));
     }
 
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategory(Long websiteId, String category) {
-        List<Product> products = productRepository.findByWebsiteIdAndCategory(websiteId, category);
-        return products.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ProductPageResponse getWebsiteProductsPage(Long websiteId, ProductPageRequest request, Long userId) {
+        // Verify website exists and user owns it
+        Website website = websiteRepository.findById(websiteId)
+                .orElseThrow(() -> new RuntimeException("Website not found"));
+
+        if (!website.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to website");
+        }
+
+        return findProductsPage(websiteId, request, request.getAvailable());
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageResponse getAvailableProductsPage(Long websiteId, ProductPageRequest request) {
+        return findProductsPage(websiteId, request, true);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchWebsiteProducts(Long websiteId, ProductSearchRequest request, Long userId) {
+        // Verify website exists and user owns it
+        Website website = websiteRepository.findById(websiteId)
+                .orElseThrow(() -> new RuntimeException("Website not found"));
+
+        if (!website.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to website");
+        }
+
+        return searchProducts(websiteId, request);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchAvailableProducts(Long websiteId, ProductSearchRequest request) {
+        request.setAvailable(true);
+        return searchProducts(websiteId, request);
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> suggestProductNames(Long websiteId, String text, int limit) {
+        return productRepository.suggestNames(websiteId, toPrefixQuery(text), text.trim(), limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageResponse getProductsByCategory(Long websiteId, String category) {
+        return cappedList(productRepository.findByWebsiteIdAndCategoryOrderByIdAsc(
+                websiteId, category, Limit.of(listMaxResults + 1)));
     }
 
     @Transactional(readOnly = true)
@@ -142,13 +200,8 @@ public class ProductService {
         product.setPrice(request.getPrice());
         product.setImageUrl(request.getImageUrl());
 
-        // Convert imageUrls list to JSON string
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            try {
-                product.setImageUrls(objectMapper.writeValueAsString(request.getImageUrls()));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize image URLs", e);
-            }
+            product.setImageUrls(new ArrayList<>(request.getImageUrls()));
         }
 
         product.setStock(request.getStock());
@@ -174,6 +227,8 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        pageSnapshotCache.evict(product.getWebsite().getSubdomain());
+        categoryTreeCache.evict(product.getWebsite().getId());
 
         return mapToResponse(updatedProduct);
     }
@@ -187,83 +242,132 @@ public class ProductService {
             throw new RuntimeException("Unauthorized access to product");
         }
 
-        // Delete images from S3
-        // Delete single image if exists
-        if (product.getImageUrl() != null && !product.getImageUrl().isEmpty()) {
-            try {
-                String key = extractKeyFromUrl(product.getImageUrl());
-                s3Service.deleteFile(key);
-                log.info("Deleted single product image from S3: {}", key);
-            } catch (Exception e) {
-                log.error("Failed to delete single product image from S3: {}", e.getMessage());
-            }
-        }
+        productRepository.delete(product);
 
-        // Delete multiple images if exists
-        if (product.getImageUrls() != null && !product.getImageUrls().isEmpty()) {
-            try {
-                List<String> imageUrls = objectMapper.readValue(
-                    product.getImageUrls(),
-                    new TypeReference<List<String>>() {}
-                );
-                for (String imageUrl : imageUrls) {
-                    try {
-                        String key = extractKeyFromUrl(imageUrl);
-                        s3Service.deleteFile(key);
-                        log.info("Deleted product image from S3: {}", key);
-                    } catch (Exception e) {
-                        log.error("Failed to delete product image from S3: {}", e.getMessage());
-                    }
-                }
-            } catch (JsonProcessingException e) {
-                log.error("Failed to parse imageUrls JSON: {}", e.getMessage());
-            }
+        // Images may be shared with media rows or other products; the deletion worker checks before removing them
+        List<String> imageUrls = new ArrayList<>();
+        imageUrls.add(product.getImageUrl());
+        if (product.getImageUrls() != null) {
+            imageUrls.addAll(product.getImageUrls());
         }
+        s3DeletionService.enqueue(imageUrls, true);
 
-        productRepository.delete(product);
+        pageSnapshotCache.evict(product.getWebsite().getSubdomain());
+        categoryTreeCache.evict(product.getWebsite().getId());
     }
 
-    private String extractKeyFromUrl(String s3Url) {
-        // Extract the key from S3 URL
-        // URL format: https://bucket-name.s3.region.amazonaws.com/key
-        // or: https://s3.region.amazonaws.com/bucket-name/key
-        try {
-            String[] parts = s3Url.split(".amazonaws.com/");
-            if (parts.length > 1) {
-                return parts[1];
-            }
-            throw new RuntimeException("Invalid S3 URL format");
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to extract key from S3 URL: " + s3Url, e);
+    // The queries fetch one row past the cap to tell whether the list is complete
+    private ProductPageResponse cappedList(List<Product> products) {
+        List<ProductResponse> items = products.stream()
+                .limit(listMaxResults)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new ProductPageResponse(items, null, products.size() > listMaxResults);
+    }
+
+    private ProductPageResponse findProductsPage(Long websiteId, ProductPageRequest request, Boolean available) {
+        boolean ascending = "asc".equals(request.getDirection());
+        int limit = request.getLimit();
+
+        List<Specification<Product>> filters = new ArrayList<>();
+        filters.add(ProductSpecifications.belongsToWebsite(websiteId));
+        if (available != null) {
+            filters.add(ProductSpecifications.isAvailable(available));
+        }
+        if (request.getCategoryId() != null) {
+            filters.add(ProductSpecifications.inCategory(request.getCategoryId()));
+        }
+        if (request.getSubCategoryId() != null) {
+            filters.add(ProductSpecifications.inSubCategory(request.getSubCategoryId()));
+        }
+        if (request.getMinPrice() != null) {
+            filters.add(ProductSpecifications.priceAtLeast(request.getMinPrice()));
         }
+        if (request.getMaxPrice() != null) {
+            filters.add(ProductSpecifications.priceAtMost(request.getMaxPrice()));
+        }
+        if (request.getInStock() != null) {
+            filters.add(ProductSpecifications.inStock(request.getInStock()));
+        }
+        if (request.getCursor() != null && !request.getCursor().isEmpty()) {
+            filters.add(afterCursor(ProductCursor.decode(request.getCursor()), request, ascending));
+        }
+        filters.add(ProductSpecifications.fetchAssociations());
+
+        // id breaks ties so the ordering is total and the cursor is stable
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort.Order sortKey = ascending
+                ? Sort.Order.asc(request.getSort()).nullsLast()
+                : Sort.Order.desc(request.getSort()).nullsFirst();
+        Sort sort = Sort.by(sortKey).and(Sort.by(direction, "id"));
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Product> rows = productRepository.findBy(Specification.allOf(filters),
+                query -> query.sortBy(sort).limit(limit + 1).all());
+
+        boolean hasMore = rows.size() > limit;
+        List<Product> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore
+                ? ProductCursor.after(page.get(page.size() - 1), request.getSort(), request.getDirection()).encode()
+                : null;
+
+        List<ProductResponse> items = page.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new ProductPageResponse(items, nextCursor, hasMore);
     }
 
-    private ProductResponse mapToResponse(Product product) {
-        ProductResponse response = modelMapper.map(product, ProductResponse.class);
-        response.setWebsiteId(product.getWebsite().getId());
-
-        // Deserialize imageUrls JSON string to list
-        if (product.getImageUrls() != null && !product.getImageUrls().isEmpty()) {
-            try {
-                List<String> imageUrls = objectMapper.readValue(
-                    product.getImageUrls(),
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class)
-                );
-                response.setImageUrls(imageUrls);
-            } catch (JsonProcessingException e) {
-                // If deserialization fails, set empty list
-                response.setImageUrls(List.of());
-            }
+    private Specification<Product> afterCursor(ProductCursor cursor, ProductPageRequest request, boolean ascending) {
+        if (!cursor.sort().equals(request.getSort()) || !cursor.direction().equals(request.getDirection())) {
+            throw new BadRequestException("Cursor does not match the requested sort");
         }
 
-        // Map category and sub-category IDs
-        if (product.getCategoryObj() != null) {
-            response.setCategoryId(product.getCategoryObj().getId());
+        try {
+            return switch (cursor.sort()) {
+                case "price" -> ProductSpecifications.after(
+                        "price", cursor.value().isEmpty() ? null : new BigDecimal(cursor.value()), cursor.id(), ascending);
+                case "name" -> ProductSpecifications.after(
+                        "name", cursor.value(), cursor.id(), ascending);
+                default -> ProductSpecifications.after(
+                        "createdAt", cursor.value().isEmpty() ? null : LocalDateTime.parse(cursor.value()),
+                        cursor.id(), ascending);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
         }
-        if (product.getSubCategory() != null) {
-            response.setSubCategoryId(product.getSubCategory().getId());
+    }
+
+    private List<ProductResponse> searchProducts(Long websiteId, ProductSearchRequest request) {
+        List<Long> ids = productRepository.searchIds(
+                websiteId, toPrefixQuery(request.getQ()), request.getQ().trim(), request);
+        if (ids.isEmpty()) {
+            return List.of();
         }
 
-        return response;
+        // Load the page of hits in one query, then restore the ranked order
+        Map<Long, Product> byId = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Every term becomes a prefix match so partially typed words still hit
+    private String toPrefixQuery(String text) {
+        String query = Arrays.stream(SEARCH_TERM_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        if (query.isEmpty()) {
+            throw new BadRequestException("Search query must contain letters or digits");
+        }
+        return query;
+    }
+
+    private ProductResponse mapToResponse(Product product) {
+        return productMapper.toResponse(product);
     }
 }
@@ -0,0 +1,172 @@
+package com.ezweb.service;
+
+import com.ezweb.model.S3DeletionOutbox;
+import com.ezweb.repository.ComponentRegistryRepository;
+import com.ezweb.repository.MediaRepository;
+import com.ezweb.repository.ProductRepository;
+import com.ezweb.repository.S3DeletionOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Deletes S3 objects through the s3_deletion_outbox table. Request threads only
+ * insert keys in their own transaction; a scheduled drain removes them in
+ * DeleteObjects batches and retries failures with backoff.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class S3DeletionService {
+
+    // DeleteObjects accepts at most 1000 keys per request
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final S3DeletionOutboxRepository outboxRepository;
+    private final MediaRepository mediaRepository;
+    private final ProductRepository productRepository;
+    private final ComponentRegistryRepository componentRegistryRepository;
+    private final S3Service s3Service;
+    private final ObjectKeyLocks objectKeyLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${s3.deletion.batch-size}")
+    private int batchSize;
+
+    @Value("${s3.deletion.max-backoff}")
+    private Duration maxBackoff;
+
+    /**
+     * Queue the objects behind these URLs for deletion. Joins the caller's transaction,
+     * so nothing is deleted if the caller rolls back.
+     */
+    public void enqueue(Collection<String> s3Urls, boolean includeVariants) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String s3Url : s3Urls) {
+            if (s3Url == null || s3Url.isEmpty()) {
+                continue;
+            }
+            try {
+                keys.add(s3Service.extractKey(s3Url));
+            } catch (RuntimeException e) {
+                log.debug("Not one of our S3 objects, nothing to delete: {}", s3Url);
+            }
+        }
+        outboxRepository.enqueue(keys, includeVariants);
+    }
+
+    @Scheduled(fixedDelayString = "${s3.deletion.poll-interval}")
+    public void drain() {
+        // Keep going while batches come back full; failed rows are pushed into the future
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> drainBatch()))) {
+            log.debug("Outbox batch drained, continuing");
+        }
+    }
+
+    private boolean drainBatch() {
+        List<S3DeletionOutbox> rows = outboxRepository.findDue(LocalDateTime.now(), batchSize);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        // A key may have been referenced again since it was queued, e.g. by a deduplicated upload.
+        // The locks keep new references out until the delete below has finished.
+        objectKeyLocks.lock(rows.stream().map(S3DeletionOutbox::getObjectKey).toList());
+        Set<String> referenced = findReferencedKeys(rows);
+
+        List<S3DeletionOutbox> done = new ArrayList<>();
+        Map<S3DeletionOutbox, List<String>> keysByRow = new LinkedHashMap<>();
+        for (S3DeletionOutbox row : rows) {
+            if (referenced.contains(row.getObjectKey())) {
+                done.add(row);
+                continue;
+            }
+
+            try {
+                List<String> keys = new ArrayList<>();
+                keys.add(row.getObjectKey());
+                if (row.getIncludeVariants()) {
+                    keys.addAll(s3Service.listKeys(s3Service.variantPrefix(row.getObjectKey())));
+                }
+                keysByRow.put(row, keys);
+            } catch (RuntimeException e) {
+                scheduleRetry(row, e.getMessage());
+            }
+        }
+
+        List<String> allKeys = keysByRow.values().stream()
+                .flatMap(List::stream)
+                .distinct()
+                .toList();
+        Map<String, String> errors = new HashMap<>();
+        for (int i = 0; i < allKeys.size(); i += MAX_KEYS_PER_REQUEST) {
+            List<String> chunk = allKeys.subList(i, Math.min(i + MAX_KEYS_PER_REQUEST, allKeys.size()));
+            try {
+                errors.putAll(s3Service.deleteFiles(chunk));
+            } catch (RuntimeException e) {
+                chunk.forEach(key -> errors.put(key, e.getMessage()));
+            }
+        }
+
+        keysByRow.forEach((row, keys) -> {
+            String error = keys.stream()
+                    .map(errors::get)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            if (error == null) {
+                done.add(row);
+            } else {
+                scheduleRetry(row, error);
+            }
+        });
+
+        outboxRepository.deleteAllInBatch(done);
+        return rows.size() == batchSize;
+    }
+
+    private Set<String> findReferencedKeys(List<S3DeletionOutbox> rows) {
+        Map<String, String> keyByUrl = new HashMap<>();
+        for (S3DeletionOutbox row : rows) {
+            keyByUrl.put(s3Service.getFileUrl(row.getObjectKey()), row.getObjectKey());
+        }
+
+        Set<String> urls = keyByUrl.keySet();
+        Set<String> referenced = new HashSet<>();
+        mediaRepository.findReferencedUrls(urls).forEach(url -> referenced.add(keyByUrl.get(url)));
+        productRepository.findReferencedImageUrls(urls).forEach(url -> referenced.add(keyByUrl.get(url)));
+        componentRegistryRepository.findReferencedUrls(urls).forEach(url -> referenced.add(keyByUrl.get(url)));
+        return referenced;
+    }
+
+    private void scheduleRetry(S3DeletionOutbox row, String error) {
+        int attempts = row.getAttempts() + 1;
+        log.warn("Deleting S3 object {} failed (attempt {}): {}", row.getObjectKey(), attempts, error);
+
+        // Exponential backoff from 30s, capped; rows are never dropped so storage cannot leak
+        Duration backoff = Duration.ofSeconds(30L << Math.min(attempts - 1, 16));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+
+        row.setAttempts(attempts);
+        row.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        row.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+    }
+}
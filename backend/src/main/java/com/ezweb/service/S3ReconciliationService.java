@@ -0,0 +1,159 @@
+package com.ezweb.service;
+
+import com.ezweb.dto.S3ReconcileReport;
+import com.ezweb.repository.S3DeletionOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Finds S3 objects that no database row refers to. Referenced keys are streamed
+ * into a Bloom filter, so memory stays around 2 bytes per key however large the
+ * bucket grows, then the configured prefixes are listed page by page against it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class S3ReconciliationService {
+
+    private static final String COUNT_REFERENCES_SQL =
+            "SELECT (SELECT COUNT(*) FROM media) " +
+            "+ (SELECT COUNT(*) FROM media_variants) " +
+            "+ (SELECT COUNT(image_url) + COALESCE(SUM(cardinality(image_urls)), 0) FROM products) " +
+            "+ (SELECT COUNT(*) FROM component_registry) " +
+            "+ (SELECT COUNT(*) FROM s3_deletion_outbox)";
+
+    private static final String REFERENCED_URLS_SQL =
+            "SELECT s3_url FROM media " +
+            "UNION ALL SELECT s3_url FROM media_variants " +
+            "UNION ALL SELECT image_url FROM products WHERE image_url IS NOT NULL " +
+            "UNION ALL SELECT unnest(image_urls) FROM products " +
+            "UNION ALL SELECT s3_file_url FROM component_registry";
+
+    // Already queued for deletion; counted as known so a purge does not queue them twice
+    private static final String QUEUED_KEYS_SQL = "SELECT object_key FROM s3_deletion_outbox";
+
+    private static final int FETCH_SIZE = 10000;
+    private static final int SAMPLE_SIZE = 100;
+    private static final int ENQUEUE_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final S3DeletionOutboxRepository outboxRepository;
+    private final S3Service s3Service;
+
+    @Value("${s3.reconcile.prefixes}")
+    private List<String> prefixes;
+
+    @Value("${s3.reconcile.grace-period}")
+    private Duration gracePeriod;
+
+    @Value("${s3.reconcile.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${s3.reconcile.purge}")
+    private boolean purgeOnSchedule;
+
+    @Scheduled(cron = "${s3.reconcile.cron}")
+    public void scheduledReconcile() {
+        reconcile(purgeOnSchedule);
+    }
+
+    public S3ReconcileReport reconcile(boolean purge) {
+        Instant startedAt = Instant.now();
+        // Objects this young may belong to an upload whose row is not written yet
+        Instant cutoff = startedAt.minus(gracePeriod);
+
+        long[] referencedCount = new long[1];
+        KeyBloomFilter referenced = loadReferencedKeys(referencedCount);
+
+        if (purge && referencedCount[0] == 0) {
+            // An empty reference set means every object would be purged; far more likely a misconfiguration
+            log.warn("No referenced keys found, reconciling in report-only mode");
+            purge = false;
+        }
+
+        long[] counters = new long[3];  // scanned, orphaned, orphaned bytes
+        List<String> sample = new ArrayList<>();
+        List<String> pending = new ArrayList<>();
+        boolean queueOrphans = purge;
+
+        for (String prefix : prefixes) {
+            s3Service.forEachObject(prefix, object -> {
+                counters[0]++;
+                if (object.lastModified().isAfter(cutoff) || referenced.mightContain(object.key())) {
+                    return;
+                }
+
+                counters[1]++;
+                counters[2] += object.size();
+                if (sample.size() < SAMPLE_SIZE) {
+                    sample.add(object.key());
+                }
+
+                if (queueOrphans) {
+                    pending.add(object.key());
+                    if (pending.size() >= ENQUEUE_CHUNK_SIZE) {
+                        outboxRepository.enqueue(pending, false);
+                        pending.clear();
+                    }
+                }
+            });
+        }
+        if (queueOrphans && !pending.isEmpty()) {
+            outboxRepository.enqueue(pending, false);
+        }
+
+        log.info("S3 reconciliation: {} referenced keys ({} byte filter), {} objects scanned, {} orphaned ({} bytes){} in {}",
+                referencedCount[0], referenced.sizeInBytes(), counters[0], counters[1], counters[2],
+                queueOrphans ? ", queued for deletion" : "", Duration.between(startedAt, Instant.now()));
+
+        return new S3ReconcileReport(referencedCount[0], counters[0], counters[1], counters[2], queueOrphans, sample);
+    }
+
+    private KeyBloomFilter loadReferencedKeys(long[] referencedCount) {
+        // PostgreSQL only streams with a cursor inside a transaction; otherwise the whole result is buffered
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(status -> {
+            Long expected = jdbcTemplate.queryForObject(COUNT_REFERENCES_SQL, Long.class);
+            KeyBloomFilter filter = new KeyBloomFilter(expected != null ? expected : 0, falsePositiveRate);
+
+            streamColumn(REFERENCED_URLS_SQL, url -> {
+                try {
+                    filter.add(s3Service.extractKey(url));
+                    referencedCount[0]++;
+                } catch (RuntimeException e) {
+                    // Not one of our objects
+                }
+            });
+            streamColumn(QUEUED_KEYS_SQL, key -> {
+                filter.add(key);
+                referencedCount[0]++;
+            });
+            return filter;
+        });
+    }
+
+    private void streamColumn(String sql, Consumer<String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+}
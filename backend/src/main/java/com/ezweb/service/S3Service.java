@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
@@ -13,8 +15,18 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -30,41 +42,151 @@ public class S3Service {
     @Value("${aws.s3.region}")
     private String region;
 
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.multipart.threshold}")
+    private DataSize multipartThreshold;
+
+    @Value("${aws.s3.multipart.part-size}")
+    private DataSize multipartPartSize;
+
+    /**
+     * Build a unique object key under the given folder
+     */
+    public String newObjectKey(String folder, String originalFilename) {
+        return folder + "/" + generateFileName(originalFilename);
+    }
+
+    /**
+     * Build a key derived from the content hash, so identical files share one object
+     */
+    public String contentObjectKey(String folder, String contentHash, String originalFilename) {
+        return folder + "/" + contentHash + extensionOf(originalFilename);
+    }
+
     /**
-     * Upload a file to S3
+     * Upload a local file to S3, switching to a multipart upload for large files
+     * so only one part is held in memory at a time
      */
-    public String uploadFile(MultipartFile file, String folder) throws IOException {
-        String fileName = generateFileName(file.getOriginalFilename());
-        String key = folder + "/" + fileName;
+    public void uploadFile(Path file, String key, String contentType) {
+        try {
+            long size = Files.size(file);
+            if (size >= multipartThreshold.toBytes()) {
+                uploadMultipart(file, size, key, contentType);
+            } else {
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build();
+
+                s3Client.putObject(putObjectRequest, RequestBody.fromFile(file));
+            }
 
+            log.info("File uploaded successfully: {}", key);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read upload " + file, e);
+        } catch (SdkException e) {
+            log.error("Error uploading file to S3: {}", e.getMessage());
+            throw new RuntimeException("Failed to upload file to S3", e);
+        }
+    }
+
+    /**
+     * Upload an in-memory object to S3
+     */
+    public void uploadFile(byte[] content, String key, String contentType) {
         try {
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
-                    .contentType(file.getContentType())
+                    .contentType(contentType)
                     .build();
 
-            s3Client.putObject(putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-
+            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(content));
             log.info("File uploaded successfully: {}", key);
-            return getFileUrl(key);
-        } catch (S3Exception e) {
+        } catch (SdkException e) {
             log.error("Error uploading file to S3: {}", e.getMessage());
             throw new RuntimeException("Failed to upload file to S3", e);
         }
     }
 
     /**
-     * Generate presigned URL for uploading
+     * Open a streaming read of an object; the caller closes it, or aborts it to
+     * stop early without draining the rest of the body
      */
-    public String generatePresignedUploadUrl(String folder, String fileName, Duration duration) {
-        String key = folder + "/" + generateFileName(fileName);
+    public ResponseInputStream<GetObjectResponse> openFile(String key) {
+        try {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build();
+
+            return s3Client.getObject(getObjectRequest);
+        } catch (SdkException e) {
+            log.error("Error downloading file from S3: {}", e.getMessage());
+            throw new RuntimeException("Failed to download file from S3", e);
+        }
+    }
+
+    private void uploadMultipart(Path file, long size, String key, String contentType) throws IOException {
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        String uploadId = s3Client.createMultipartUpload(createRequest).uploadId();
+
+        try (InputStream in = Files.newInputStream(file)) {
+            int partSize = (int) multipartPartSize.toBytes();
+            byte[] buffer = new byte[partSize];
+            List<CompletedPart> parts = new ArrayList<>();
 
+            for (int partNumber = 1; (long) (partNumber - 1) * partSize < size; partNumber++) {
+                int read = in.readNBytes(buffer, 0, partSize);
+
+                UploadPartRequest partRequest = UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) read)
+                        .build();
+
+                String eTag = s3Client.uploadPart(partRequest,
+                        RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, read))).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | SdkException e) {
+            // Abandoned parts are billed until aborted
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+
+    /**
+     * Generate presigned URL for uploading directly to the given key
+     */
+    public String generatePresignedUploadUrl(String key, String contentType, String checksumSha256, Duration duration) {
         try {
+            // A signed checksum makes S3 reject any body whose SHA-256 differs
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
+                    .contentType(contentType)
+                    .checksumSHA256(checksumSha256)
                     .build();
 
             PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
@@ -123,35 +245,135 @@ public class S3Service {
      * Get public URL for a file
      */
     public String getFileUrl(String key) {
+        if (!endpoint.isEmpty()) {
+            return String.format("%s/%s/%s", endpoint, bucketName, key);
+        }
         return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
     }
 
+    /**
+     * Extract the object key from a URL produced by {@link #getFileUrl}
+     */
+    public String extractKey(String s3Url) {
+        // URL format: https://bucket-name.s3.region.amazonaws.com/key
+        // or: https://s3.region.amazonaws.com/bucket-name/key
+        // or, with an endpoint override: {endpoint}/bucket-name/key
+        String prefix = getFileUrl("");
+        if (s3Url.startsWith(prefix)) {
+            return s3Url.substring(prefix.length());
+        }
+
+        String[] parts = s3Url.split(".amazonaws.com/", 2);
+        if (parts.length > 1) {
+            // Path-style URLs (https://s3.region.amazonaws.com/bucket-name/key) lead with the bucket
+            boolean pathStyle = parts[0].matches("https?://s3[.-].*");
+            if (pathStyle && parts[1].startsWith(bucketName + "/")) {
+                return parts[1].substring(bucketName.length() + 1);
+            }
+            return parts[1];
+        }
+        throw new RuntimeException("Failed to extract key from S3 URL: " + s3Url);
+    }
+
     /**
      * Generate unique filename
      */
     private String generateFileName(String originalFilename) {
-        String extension = "";
+        return UUID.randomUUID().toString() + extensionOf(originalFilename);
+    }
+
+    private String extensionOf(String originalFilename) {
         if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            return originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase();
+        }
+        return "";
+    }
+
+    /**
+     * Delete up to 1000 objects in one request; returns the keys S3 could not delete, with the reason
+     */
+    public Map<String, String> deleteFiles(List<String> keys) {
+        try {
+            List<ObjectIdentifier> objects = keys.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+
+            DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build();
+
+            Map<String, String> errors = new HashMap<>();
+            for (S3Error error : s3Client.deleteObjects(deleteObjectsRequest).errors()) {
+                errors.put(error.key(), error.code() + ": " + error.message());
+            }
+            log.info("Deleted {} of {} files from S3", keys.size() - errors.size(), keys.size());
+            return errors;
+        } catch (S3Exception e) {
+            log.error("Error deleting files from S3: {}", e.getMessage());
+            throw new RuntimeException("Failed to delete files from S3", e);
+        }
+    }
+
+    /**
+     * Prefix shared by the resized variants of an object: {@code <key without extension>_w}
+     */
+    public String variantPrefix(String key) {
+        int dot = key.lastIndexOf('.');
+        String baseKey = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        return baseKey + "_w";
+    }
+
+    /**
+     * List every key under a prefix
+     */
+    public List<String> listKeys(String prefix) {
+        List<String> keys = new ArrayList<>();
+        forEachObject(prefix, object -> keys.add(object.key()));
+        return keys;
+    }
+
+    /**
+     * Visit every object under a prefix, fetching one ListObjectsV2 page at a time
+     */
+    public void forEachObject(String prefix, Consumer<S3Object> visitor) {
+        try {
+            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .build();
+
+            s3Client.listObjectsV2Paginator(listRequest).contents().forEach(visitor);
+        } catch (S3Exception e) {
+            log.error("Error listing files in S3: {}", e.getMessage());
+            throw new RuntimeException("Failed to list files in S3", e);
         }
-        return UUID.randomUUID().toString() + extension;
     }
 
     /**
      * Check if file exists
      */
     public boolean fileExists(String key) {
+        return headFile(key) != null;
+    }
+
+    /**
+     * Fetch object metadata, or null if the object does not exist
+     */
+    public HeadObjectResponse headFile(String key) {
         try {
             HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
                     .build();
 
-            s3Client.headObject(headObjectRequest);
-            return true;
+            return s3Client.headObject(headObjectRequest);
         } catch (NoSuchKeyException e) {
-            return false;
+            return null;
         } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
             log.error("Error checking file existence: {}", e.getMessage());
             throw new RuntimeException("Failed to check file existence", e);
         }
@@ -163,9 +385,10 @@ public class S3Service {
     public void configureBucketCors() {
         try {
             CORSRule corsRule = CORSRule.builder()
-                    .allowedMethods("GET", "HEAD")
+                    .allowedMethods("GET", "HEAD", "PUT")
                     .allowedOrigins("*")
                     .allowedHeaders("*")
+                    .exposeHeaders("ETag")
                     .maxAgeSeconds(3000)
                     .build();
 
@@ -1,20 +1,34 @@
 package com.ezweb.service;
 
+import com.ezweb.dto.CompactComponentListResponse;
+import com.ezweb.dto.CompactWebsiteComponentResponse;
+import com.ezweb.dto.ComponentPositionResponse;
 import com.ezweb.dto.ComponentRegistryResponse;
 import com.ezweb.dto.WebsiteComponentRequest;
 import com.ezweb.dto.WebsiteComponentResponse;
+import com.ezweb.exception.PreconditionFailedException;
+import com.ezweb.mapper.ComponentRegistryMapper;
+import com.ezweb.mapper.WebsiteComponentMapper;
 import com.ezweb.model.ComponentRegistry;
 import com.ezweb.model.Website;
 import com.ezweb.model.WebsiteComponent;
 import com.ezweb.repository.ComponentRegistryRepository;
 import com.ezweb.repository.WebsiteComponentRepository;
 import com.ezweb.repository.WebsiteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,21 +38,22 @@ public class WebsiteComponentService {
     private final WebsiteComponentRepository websiteComponentRepository;
     private final WebsiteRepository websiteRepository;
     private final ComponentRegistryRepository componentRegistryRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final PageSnapshotCache pageSnapshotCache;
+    private final ComponentDataValidator componentDataValidator;
+    private final ComponentWriteBehindBuffer componentWriteBehindBuffer;
+    private final EtagService etagService;
+    private final WebsiteComponentMapper websiteComponentMapper;
+    private final ComponentRegistryMapper componentRegistryMapper;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     public WebsiteComponentResponse addComponentToWebsite(Long websiteId, WebsiteComponentRequest request, Long userId) {
-        // Get website and verify ownership
-        Website website = websiteRepository.findById(websiteId)
-                .orElseThrow(() -> new RuntimeException("Website not found"));
-
-        if (!website.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to website");
-        }
+        Website website = ownedWebsite(websiteId, userId);
 
         // Get component registry
         ComponentRegistry componentRegistry = componentRegistryRepository.findById(request.getComponentRegistryId())
                 .orElseThrow(() -> new RuntimeException("Component not found in registry"));
+        componentDataValidator.validate(componentRegistry, request.getSchemaData());
 
         // Create website component
         WebsiteComponent websiteComponent = new WebsiteComponent();
@@ -49,19 +64,14 @@ public class WebsiteComponentService {
         websiteComponent.setVisible(request.getVisible());
 
         WebsiteComponent savedComponent = websiteComponentRepository.save(websiteComponent);
+        pageSnapshotCache.evict(website.getSubdomain());
 
         return mapToResponse(savedComponent);
     }
 
     @Transactional(readOnly = true)
     public List<WebsiteComponentResponse> getWebsiteComponents(Long websiteId, Long userId) {
-        // Verify website exists and user owns it
-        Website website = websiteRepository.findById(websiteId)
-                .orElseThrow(() -> new RuntimeException("Website not found"));
-
-        if (!website.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to website");
-        }
+        ownedWebsite(websiteId, userId);
 
         List<WebsiteComponent> components = websiteComponentRepository.findByWebsiteIdOrderByPositionAsc(websiteId);
         return components.stream()
@@ -69,6 +79,21 @@ public class WebsiteComponentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Writes the website's buffered component updates, so the owner's next read,
+     * ETag or write sees them. Does nothing for other users' websites, so they
+     * cannot force the writes out early.
+     *
+     * Called by the controller before any transaction is open: the flush commits
+     * on its own connection, and a request holding another one while it waits
+     * for the flush could exhaust the pool.
+     */
+    public void flushPendingUpdates(Long websiteId, Long userId) {
+        if (componentWriteBehindBuffer.hasPendingWrites() && websiteRepository.existsByIdAndUserId(websiteId, userId)) {
+            componentWriteBehindBuffer.flushWebsite(websiteId);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<WebsiteComponentResponse> getVisibleWebsiteComponents(Long websiteId) {
         List<WebsiteComponent> components = websiteComponentRepository.findByWebsiteIdAndVisibleTrueOrderByPositionAsc(websiteId);
@@ -77,90 +102,197 @@ public class WebsiteComponentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Visible components without embedded registry entries; each registry used on
+     * the page is returned once unless its key is in {@code knownRegistries}.
+     */
     @Transactional(readOnly = true)
-    public WebsiteComponentResponse getComponentById(Long id, Long userId) {
-        WebsiteComponent component = websiteComponentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Component not found"));
+    public CompactComponentListResponse getVisibleWebsiteComponentsCompact(Long websiteId, Set<String> knownRegistries) {
+        List<WebsiteComponent> components = websiteComponentRepository.findByWebsiteIdAndVisibleTrueOrderByPositionAsc(websiteId);
+
+        List<CompactWebsiteComponentResponse> compact = new ArrayList<>(components.size());
+        Map<String, ComponentRegistryResponse> registries = new LinkedHashMap<>();
+        for (WebsiteComponent component : components) {
+            CompactWebsiteComponentResponse response = websiteComponentMapper.toCompactResponse(component);
+            compact.add(response);
 
-        if (!component.getWebsite().getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to component");
+            String key = response.getComponentRegistryKey();
+            if (!knownRegistries.contains(key) && !registries.containsKey(key)) {
+                registries.put(key, componentRegistryMapper.toVersionedResponse(component.getComponentRegistry()));
+            }
         }
+        return new CompactComponentListResponse(compact, registries);
+    }
+
+    @Transactional(readOnly = true)
+    public WebsiteComponentResponse getComponentById(Long websiteId, Long id, Long userId) {
+        Website website = ownedWebsite(websiteId, userId);
+        WebsiteComponent component = websiteComponent(website, id);
 
         return mapToResponse(component);
     }
 
     @Transactional
-    public WebsiteComponentResponse updateWebsiteComponent(Long id, WebsiteComponentRequest request, Long userId) {
-        WebsiteComponent component = websiteComponentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Component not found"));
-
-        if (!component.getWebsite().getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to component");
+    public WebsiteComponentResponse updateWebsiteComponent(Long websiteId, Long id, WebsiteComponentRequest request,
+                                                           Long userId) {
+        // No flush here, or every update would be written straight away
+        WebsiteComponent component = websiteComponent(ownedWebsite(websiteId, userId), id);
+
+        componentDataValidator.validate(component.getComponentRegistry(), request.getSchemaData());
+        if (componentWriteBehindBuffer.offer(component, request)) {
+            // Stored on a later flush; the version is left out because the flush will change it
+            WebsiteComponentResponse response = mapToResponse(component);
+            response.setSchemaData(request.getSchemaData());
+            response.setPosition(request.getPosition());
+            response.setVisible(request.getVisible());
+            response.setVersion(null);
+            return response;
         }
 
         component.setSchemaData(request.getSchemaData());
         component.setPosition(request.getPosition());
         component.setVisible(request.getVisible());
 
-        WebsiteComponent updatedComponent = websiteComponentRepository.save(component);
+        // Flush so the response carries the incremented version
+        WebsiteComponent updatedComponent = websiteComponentRepository.saveAndFlush(component);
+        pageSnapshotCache.evict(component.getWebsite().getSubdomain());
 
         return mapToResponse(updatedComponent);
     }
 
+    /**
+     * Applies an RFC 7396 merge patch to the component's schema data.
+     *
+     * @param ifMatch If-Match header value, or null to patch whatever is current
+     */
     @Transactional
-    public void deleteWebsiteComponent(Long id, Long userId) {
-        WebsiteComponent component = websiteComponentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Component not found"));
+    public WebsiteComponentResponse mergePatchWebsiteComponent(Long websiteId, Long id, JsonNode patch, String ifMatch,
+                                                               Long userId) {
+        return patchSchemaData(websiteId, id, ifMatch, userId, data -> JsonPatches.mergePatch(data, patch));
+    }
 
-        if (!component.getWebsite().getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to component");
-        }
+    /**
+     * Applies RFC 6902 JSON Patch operations to the component's schema data.
+     *
+     * @param ifMatch If-Match header value, or null to patch whatever is current
+     */
+    @Transactional
+    public WebsiteComponentResponse jsonPatchWebsiteComponent(Long websiteId, Long id, JsonNode operations,
+                                                              String ifMatch, Long userId) {
+        return patchSchemaData(websiteId, id, ifMatch, userId, data -> JsonPatches.jsonPatch(data, operations));
+    }
+
+    @Transactional
+    public void deleteWebsiteComponent(Long websiteId, Long id, Long userId) {
+        Website website = ownedWebsite(websiteId, userId);
+        WebsiteComponent component = websiteComponent(website, id);
 
         websiteComponentRepository.delete(component);
+        pageSnapshotCache.evict(component.getWebsite().getSubdomain());
     }
 
     @Transactional
-    public void reorderComponents(Long websiteId, List<Long> componentIds, Long userId) {
-        // Verify website exists and user owns it
+    public List<ComponentPositionResponse> reorderComponents(Long websiteId, List<Long> componentIds, Long userId) {
+        Website website = ownedWebsite(websiteId, userId);
+
+        // Check every id exists and belongs to this website in one query
+        Set<Long> uniqueIds = new HashSet<>(componentIds);
+        if (uniqueIds.size() != componentIds.size()) {
+            throw new RuntimeException("Component ids must not contain duplicates");
+        }
+        if (websiteComponentRepository.countByWebsiteIdAndIdIn(websiteId, uniqueIds) != uniqueIds.size()) {
+            throw new RuntimeException("Component does not belong to this website");
+        }
+
+        // Update positions in one batch
+        websiteComponentRepository.updatePositions(websiteId, componentIds);
+        pageSnapshotCache.evict(website.getSubdomain());
+
+        List<ComponentPositionResponse> ordering = new ArrayList<>(componentIds.size());
+        for (int i = 0; i < componentIds.size(); i++) {
+            ordering.add(new ComponentPositionResponse(componentIds.get(i), i));
+        }
+        return ordering;
+    }
+
+    // The version check covers edits made since the client read the component; @Version covers
+    // a concurrent write landing between this read and the update
+    private WebsiteComponentResponse patchSchemaData(Long websiteId, Long id, String ifMatch, Long userId,
+                                                     UnaryOperator<JsonNode> patch) {
+        Website website = ownedWebsite(websiteId, userId);
+        WebsiteComponent component = websiteComponent(website, id);
+
+        if (!matches(ifMatch, component)) {
+            throw new PreconditionFailedException("Component was modified, current version is " + component.getVersion());
+        }
+
+        JsonNode data = readSchemaData(component);
+        JsonNode original = data.deepCopy();
+        JsonNode patched = patch.apply(data);
+        if (patched.equals(original)) {
+            return mapToResponse(component);
+        }
+
+        componentDataValidator.validate(component.getComponentRegistry(), patched);
+        try {
+            component.setSchemaData(objectMapper.writeValueAsString(patched));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to write component data", e);
+        }
+
+        WebsiteComponent updatedComponent = websiteComponentRepository.saveAndFlush(component);
+        pageSnapshotCache.evict(component.getWebsite().getSubdomain());
+
+        return mapToResponse(updatedComponent);
+    }
+
+    private Website ownedWebsite(Long websiteId, Long userId) {
         Website website = websiteRepository.findById(websiteId)
                 .orElseThrow(() -> new RuntimeException("Website not found"));
 
         if (!website.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized access to website");
         }
+        return website;
+    }
 
-        // Update positions
-        for (int i = 0; i < componentIds.size(); i++) {
-            Long componentId = componentIds.get(i);
-            WebsiteComponent component = websiteComponentRepository.findById(componentId)
-                    .orElseThrow(() -> new RuntimeException("Component not found: " + componentId));
+    private WebsiteComponent websiteComponent(Website website, Long id) {
+        WebsiteComponent component = websiteComponentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Component not found"));
+
+        if (!component.getWebsite().getId().equals(website.getId())) {
+            throw new RuntimeException("Component does not belong to this website");
+        }
+        return component;
+    }
 
-            if (!component.getWebsite().getId().equals(websiteId)) {
-                throw new RuntimeException("Component does not belong to this website");
+    // Accepts the ETag sent with the component or its version number, e.g. "3"; * matches any version
+    private boolean matches(String ifMatch, WebsiteComponent component) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String etag = etagService.componentTag(component.getId(), component.getVersion());
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.replace("\"", "").equals(String.valueOf(component.getVersion()))) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            component.setPosition(i);
-            websiteComponentRepository.save(component);
+    private JsonNode readSchemaData(WebsiteComponent component) {
+        try {
+            return objectMapper.readTree(component.getSchemaData());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored component data is not valid JSON", e);
         }
     }
 
     private WebsiteComponentResponse mapToResponse(WebsiteComponent component) {
-        WebsiteComponentResponse response = new WebsiteComponentResponse();
-        response.setId(component.getId());
-        response.setWebsiteId(component.getWebsite().getId());
-        response.setSchemaData(component.getSchemaData());
-        response.setPosition(component.getPosition());
-        response.setVisible(component.getVisible());
-        response.setCreatedAt(component.getCreatedAt());
-        response.setUpdatedAt(component.getUpdatedAt());
-
-        // Map component registry
-        ComponentRegistryResponse registryResponse = modelMapper.map(
-                component.getComponentRegistry(),
-                ComponentRegistryResponse.class
-        );
-        response.setComponentRegistry(registryResponse);
-
-        return response;
+        return websiteComponentMapper.toResponse(component);
     }
 }
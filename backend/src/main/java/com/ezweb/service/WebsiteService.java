@@ -2,15 +2,25 @@ package com.ezweb.service;
 
 import com.ezweb.dto.WebsiteRequest;
 import com.ezweb.dto.WebsiteResponse;
+import com.ezweb.mapper.WebsiteMapper;
+import com.ezweb.model.Category;
+import com.ezweb.model.SubCategory;
 import com.ezweb.model.User;
 import com.ezweb.model.Website;
+import com.ezweb.repository.MediaRepository;
+import com.ezweb.repository.ProductRepository;
 import com.ezweb.repository.UserRepository;
 import com.ezweb.repository.WebsiteRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,7 +30,13 @@ public class WebsiteService {
 
     private final WebsiteRepository websiteRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final MediaRepository mediaRepository;
+    private final ProductRepository productRepository;
+    private final S3DeletionService s3DeletionService;
+    private final PageSnapshotCache pageSnapshotCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final WebsiteMapper websiteMapper;
 
     @Transactional
     public WebsiteResponse createWebsite(WebsiteRequest request, Long userId) {
@@ -91,6 +107,8 @@ public class WebsiteService {
             throw new RuntimeException("Subdomain is already taken");
         }
 
+        pageSnapshotCache.evict(website.getSubdomain());
+
         website.setSubdomain(request.getSubdomain());
         website.setTitle(request.getTitle());
         website.setDescription(request.getDescription());
@@ -111,10 +129,30 @@ public class WebsiteService {
             throw new RuntimeException("Unauthorized access to website");
         }
 
+        // Media and product rows go with the website; queue their S3 objects in the same transaction
+        List<String> objectUrls = new ArrayList<>(mediaRepository.findS3UrlsByWebsiteId(id));
+        objectUrls.addAll(productRepository.findImageUrlsByWebsiteId(id));
+
+        pageSnapshotCache.evict(website.getSubdomain());
+        categoryTreeCache.evict(id);
         websiteRepository.delete(website);
+        s3DeletionService.enqueue(objectUrls, true);
+
+        // Categories go with the website through the database's ON DELETE CASCADE, which
+        // Hibernate never sees; drop their second-level cache entries once the delete commits
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                cache.evictEntityData(Category.class);
+                cache.evictEntityData(SubCategory.class);
+                cache.evictCollectionData(Category.class.getName() + ".subCategories");
+                cache.evictDefaultQueryRegion();
+            }
+        });
     }
 
     private WebsiteResponse mapToResponse(Website website) {
-        return modelMapper.map(website, WebsiteResponse.class);
+        return websiteMapper.toResponse(website);
     }
 }
@@ -0,0 +1,129 @@
+package com.ezweb.benchmark;
+
+import com.ezweb.dto.ComponentRegistryResponse;
+import com.ezweb.dto.ProductResponse;
+import com.ezweb.dto.WebsiteComponentResponse;
+import com.ezweb.mapper.ComponentRegistryMapper;
+import com.ezweb.mapper.ProductMapper;
+import com.ezweb.mapper.WebsiteComponentMapper;
+import com.ezweb.model.ComponentRegistry;
+import com.ezweb.model.Product;
+import com.ezweb.model.Website;
+import com.ezweb.model.WebsiteComponent;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written response mappers against the reflective
+ * ModelMapper path they replaced, for a list endpoint worth of rows.
+ * Run {@link #main} from the IDE after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"100"})
+    private int rows;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+    private final WebsiteComponentMapper websiteComponentMapper =
+            new WebsiteComponentMapper(new ComponentRegistryMapper());
+
+    private List<Product> products;
+    private List<WebsiteComponent> components;
+
+    @Setup
+    public void setUp() {
+        Website website = new Website();
+        website.setId(1L);
+
+        ComponentRegistry registry = new ComponentRegistry();
+        registry.setId(1L);
+        registry.setName("HeroComponent");
+        registry.setS3FileUrl("https://bucket.s3.eu-north-1.amazonaws.com/components/HeroComponent.js");
+        registry.setSchema("{\"title\":{\"type\":\"text\",\"label\":\"Title\"}}");
+        registry.setCreatedAt(LocalDateTime.now());
+
+        products = new ArrayList<>(rows);
+        components = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setWebsite(website);
+            product.setName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(BigDecimal.valueOf(19.99));
+            product.setImageUrls(List.of("https://example.com/a.jpg", "https://example.com/b.jpg"));
+            product.setSku("SKU-" + i);
+            product.setCreatedAt(LocalDateTime.now());
+            products.add(product);
+
+            WebsiteComponent component = new WebsiteComponent();
+            component.setId((long) i);
+            component.setWebsite(website);
+            component.setComponentRegistry(registry);
+            component.setSchemaData("{\"title\":\"Welcome\"}");
+            component.setPosition(i);
+            components.add(component);
+        }
+    }
+
+    @Benchmark
+    public void productsWithModelMapper(Blackhole blackhole) {
+        for (Product product : products) {
+            ProductResponse response = modelMapper.map(product, ProductResponse.class);
+            response.setWebsiteId(product.getWebsite().getId());
+            blackhole.consume(response);
+        }
+    }
+
+    @Benchmark
+    public void productsWithMapper(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productMapper.toResponse(product));
+        }
+    }
+
+    @Benchmark
+    public void componentsWithModelMapper(Blackhole blackhole) {
+        for (WebsiteComponent component : components) {
+            WebsiteComponentResponse response = new WebsiteComponentResponse();
+            response.setId(component.getId());
+            response.setWebsiteId(component.getWebsite().getId());
+            response.setSchemaData(component.getSchemaData());
+            response.setPosition(component.getPosition());
+            response.setVisible(component.getVisible());
+            response.setComponentRegistry(modelMapper.map(
+                    component.getComponentRegistry(), ComponentRegistryResponse.class));
+            blackhole.consume(response);
+        }
+    }
+
+    @Benchmark
+    public void componentsWithMapper(Blackhole blackhole) {
+        for (WebsiteComponent component : components) {
+            blackhole.consume(websiteComponentMapper.toResponse(component));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ezweb.service;
+
+import com.ezweb.model.Category;
+import com.ezweb.model.ComponentRegistry;
+import com.ezweb.model.Product;
+import com.ezweb.model.Website;
+import com.ezweb.model.WebsiteComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkInsertStatementCountTests extends StatementCountTestSupport {
+
+	private static final int ROWS = 200;
+	private static final int ID_BLOCK_SIZE = 50;
+
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+	private int batchSize;
+
+	private Website website;
+
+	@BeforeEach
+	void setUp() {
+		website = createWebsite();
+	}
+
+	@Test
+	void productInsertsAreBatched() {
+		Category category = new Category();
+		category.setWebsite(website);
+		category.setName("Category");
+		entityManager.persist(category);
+
+		long statements = countStatements(() -> {
+			for (int i = 0; i < ROWS; i++) {
+				Product product = new Product();
+				product.setWebsite(website);
+				product.setName("Product " + i);
+				product.setPrice(BigDecimal.TEN);
+				product.setCategoryObj(category);
+				entityManager.persist(product);
+			}
+		});
+
+		assertThat(statements).isLessThanOrEqualTo(expectedStatements());
+	}
+
+	@Test
+	void componentInsertsAreBatched() {
+		ComponentRegistry registry = createRegistry();
+
+		long statements = countStatements(() -> {
+			for (int i = 0; i < ROWS; i++) {
+				WebsiteComponent component = new WebsiteComponent();
+				component.setWebsite(website);
+				component.setComponentRegistry(registry);
+				component.setSchemaData("{}");
+				component.setPosition(i);
+				entityManager.persist(component);
+			}
+		});
+
+		assertThat(statements).isLessThanOrEqualTo(expectedStatements());
+	}
+
+	// One prepared INSERT per JDBC batch plus one sequence call per id block; IDENTITY would need ROWS
+	private long expectedStatements() {
+		return ceilDiv(ROWS, batchSize) + ceilDiv(ROWS, ID_BLOCK_SIZE) + 1;
+	}
+
+	private static long ceilDiv(int value, int divisor) {
+		return (value + divisor - 1) / divisor;
+	}
+}
@@ -0,0 +1,112 @@
+package com.ezweb.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComponentDataSchemaTests {
+
+	private static final String CAROUSEL_SCHEMA = """
+			{
+			  "name": "CarouselComponent",
+			  "version": "1.0.0",
+			  "schema": {
+			    "title": {"type": "text", "required": true},
+			    "carouselImages": {"type": "multi-images", "maxImages": 2, "required": true},
+			    "autoPlay": {"type": "boolean", "default": true},
+			    "interval": {"type": "number", "default": 5000},
+			    "columns": {"type": "select", "options": [2, 3, 4], "default": 3},
+			    "effect": {"type": "select", "options": ["slide", "fade"], "default": "slide", "required": true},
+			    "advanced": {
+			      "type": "advanced",
+			      "schema": {
+			        "overlayColor": {"type": "color", "default": "#000000"}
+			      }
+			    }
+			  }
+			}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void acceptsValidData() {
+		assertThat(validate(CAROUSEL_SCHEMA, """
+				{"title": "Hello", "carouselImages": ["a.jpg", "b.jpg"], "autoPlay": false,
+				 "interval": 3000, "columns": 4, "effect": "fade", "overlayColor": "#ffffff"}
+				""")).isEmpty();
+	}
+
+	@Test
+	void acceptsFormValuesSentAsStrings() {
+		assertThat(validate(CAROUSEL_SCHEMA, """
+				{"title": "Hello", "carouselImages": [], "autoPlay": "true", "interval": "2500", "columns": "2"}
+				""")).isEmpty();
+	}
+
+	@Test
+	void rejectsMissingRequiredFieldWithoutDefault() {
+		assertThat(validate(CAROUSEL_SCHEMA, "{\"carouselImages\": []}"))
+				.containsExactly("title is required");
+	}
+
+	@Test
+	void treatsNullAsMissing() {
+		assertThat(validate(CAROUSEL_SCHEMA, "{\"title\": null, \"carouselImages\": []}"))
+				.containsExactly("title is required");
+	}
+
+	@Test
+	void rejectsMistypedFields() {
+		assertThat(validate(CAROUSEL_SCHEMA, """
+				{"title": 5, "carouselImages": "a.jpg", "autoPlay": "yes", "interval": "soon", "effect": "spin"}
+				""")).containsExactlyInAnyOrder(
+				"title must be a string",
+				"carouselImages must be a list of image URLs",
+				"autoPlay must be true or false",
+				"interval must be a number",
+				"effect must be one of [slide, fade]");
+	}
+
+	@Test
+	void enforcesMaxImages() {
+		assertThat(validate(CAROUSEL_SCHEMA, "{\"title\": \"t\", \"carouselImages\": [\"a\", \"b\", \"c\"]}"))
+				.containsExactly("carouselImages allows at most 2 images");
+	}
+
+	@Test
+	void checksFieldsOfAdvancedSectionsAtTopLevel() {
+		assertThat(validate(CAROUSEL_SCHEMA, "{\"title\": \"t\", \"carouselImages\": [], \"overlayColor\": 1}"))
+				.containsExactly("overlayColor must be a string");
+	}
+
+	@Test
+	void allowsUndeclaredKeysAndUnknownTypes() {
+		String schema = "{\"widget\": {\"type\": \"future-type\", \"required\": false}}";
+		assertThat(validate(schema, "{\"widget\": [1, 2], \"extra\": {\"any\": true}}")).isEmpty();
+	}
+
+	@Test
+	void compilesABareFieldMap() {
+		String schema = "{\"title\": {\"type\": \"text\", \"required\": true}}";
+		assertThat(validate(schema, "{}")).containsExactly("title is required");
+	}
+
+	@Test
+	void rejectsNonObjectData() {
+		assertThat(validate(CAROUSEL_SCHEMA, "[]")).containsExactly("component data must be a JSON object");
+	}
+
+	private List<String> validate(String schema, String data) {
+		try {
+			JsonNode schemaNode = objectMapper.readTree(schema);
+			return ComponentDataSchema.compile(schemaNode).validate(objectMapper.readTree(data));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.ezweb.service;
+
+import com.ezweb.config.CacheConfig;
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.model.ComponentRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComponentDataValidatorTests {
+
+	private CacheManager cacheManager;
+
+	private ComponentDataValidator validator;
+
+	private ComponentRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		cacheManager = new ConcurrentMapCacheManager(CacheConfig.COMPONENT_SCHEMAS);
+		validator = new ComponentDataValidator(cacheManager, new ObjectMapper());
+
+		registry = new ComponentRegistry();
+		registry.setId(7L);
+		registry.setName("HeroComponent");
+		registry.setVersion("1.0.0");
+		registry.setSchema("{\"title\": {\"type\": \"text\", \"required\": true}}");
+	}
+
+	@Test
+	void acceptsValidData() {
+		assertThatNoException().isThrownBy(() -> validator.validate(registry, "{\"title\": \"Welcome\"}"));
+	}
+
+	@Test
+	void rejectsInvalidDataWithFieldMessages() {
+		assertThatThrownBy(() -> validator.validate(registry, "{\"title\": 42}"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Invalid data for HeroComponent: title must be a string");
+	}
+
+	@Test
+	void rejectsMalformedJson() {
+		assertThatThrownBy(() -> validator.validate(registry, "{\"title\":"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Schema data must be valid JSON");
+	}
+
+	@Test
+	void acceptsAnyDataWhenTheSchemaDoesNotCompile() {
+		registry.setSchema("{not json");
+
+		assertThatNoException().isThrownBy(() -> validator.validate(registry, "{\"title\": 42}"));
+	}
+
+	@Test
+	void cachesTheCompiledSchemaByIdAndVersion() {
+		validator.validate(registry, "{\"title\": \"Welcome\"}");
+
+		// Same id and version: the cached schema is used even though the entity changed
+		registry.setSchema("{}");
+		assertThatThrownBy(() -> validator.validate(registry, "{}")).isInstanceOf(BadRequestException.class);
+
+		registry.setVersion("1.1.0");
+		assertThatNoException().isThrownBy(() -> validator.validate(registry, "{}"));
+	}
+
+	@Test
+	void evictDropsTheCompiledSchema() {
+		validator.validate(registry, "{\"title\": \"Welcome\"}");
+		assertThat(cacheManager.getCache(CacheConfig.COMPONENT_SCHEMAS).get("7@1.0.0")).isNotNull();
+
+		validator.evict(registry);
+
+		assertThat(cacheManager.getCache(CacheConfig.COMPONENT_SCHEMAS).get("7@1.0.0")).isNull();
+		registry.setSchema("{}");
+		assertThatNoException().isThrownBy(() -> validator.validate(registry, "{}"));
+	}
+}
@@ -0,0 +1,232 @@
+package com.ezweb.service;
+
+import com.ezweb.dto.WebsiteComponentRequest;
+import com.ezweb.dto.WriteBehindStatsResponse;
+import com.ezweb.model.Website;
+import com.ezweb.model.WebsiteComponent;
+import com.ezweb.repository.WebsiteComponentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ComponentWriteBehindBufferTests {
+
+	private WebsiteComponentRepository repository;
+
+	private PageSnapshotCache pageSnapshotCache;
+
+	private ComponentWriteBehindBuffer buffer;
+
+	private WebsiteComponent hero;
+
+	private WebsiteComponent footer;
+
+	private WebsiteComponent otherSiteHero;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(WebsiteComponentRepository.class);
+		pageSnapshotCache = mock(PageSnapshotCache.class);
+		buffer = new ComponentWriteBehindBuffer(repository, pageSnapshotCache, mock(PlatformTransactionManager.class));
+		configure(Duration.ofHours(1), Duration.ofHours(1));
+
+		Website shop = website(1L, "shop");
+		hero = component(10L, shop);
+		footer = component(11L, shop);
+		otherSiteHero = component(20L, website(2L, "blog"));
+		Map<Long, WebsiteComponent> rows = Map.of(10L, hero, 11L, footer, 20L, otherSiteHero);
+		when(repository.findAllById(any())).thenAnswer(invocation -> {
+			Iterable<Long> ids = invocation.getArgument(0);
+			List<WebsiteComponent> found = new ArrayList<>();
+			ids.forEach(id -> found.add(rows.get(id)));
+			return found;
+		});
+	}
+
+	@Test
+	void doesNotBufferWhenDisabled() {
+		ReflectionTestUtils.setField(buffer, "enabled", false);
+
+		assertThat(buffer.offer(hero, request("{\"title\": \"A\"}", 0))).isFalse();
+		assertThat(buffer.hasPendingWrites()).isFalse();
+	}
+
+	@Test
+	void mergesRepeatedUpdatesToOneComponentIntoOneWrite() {
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		buffer.offer(hero, request("{\"title\": \"B\"}", 3));
+		buffer.offer(hero, request("{\"title\": \"C\"}", 2));
+
+		buffer.flushWebsite(1L);
+
+		verify(repository, times(1)).findAllById(any());
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"C\"}");
+		assertThat(hero.getPosition()).isEqualTo(2);
+		WriteBehindStatsResponse stats = buffer.getStats();
+		assertThat(stats.getUpdatesReceived()).isEqualTo(3);
+		assertThat(stats.getRowsWritten()).isEqualTo(1);
+		assertThat(stats.getCoalescingRatio()).isEqualTo(3.0);
+	}
+
+	@Test
+	void flushDueWaitsForTheQuietWindow() {
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+
+		buffer.flushDue();
+		verify(repository, never()).findAllById(any());
+
+		configure(Duration.ZERO, Duration.ofHours(1));
+		buffer.flushDue();
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"A\"}");
+		assertThat(buffer.getStats().getPending()).isZero();
+	}
+
+	@Test
+	void flushDueWritesAfterMaxDelayOfContinuousEdits() {
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		configure(Duration.ofHours(1), Duration.ZERO);
+		buffer.offer(hero, request("{\"title\": \"B\"}", 0));
+
+		buffer.flushDue();
+
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"B\"}");
+	}
+
+	@Test
+	void retriesAFailedBatchRowByRowAndDropsTheFailingRow() {
+		when(repository.findAllById(List.of(10L, 11L))).thenThrow(new IllegalStateException("batch failed"));
+		when(repository.findAllById(List.of(11L))).thenThrow(new IllegalStateException("row failed"));
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		buffer.offer(footer, request("{\"title\": \"F\"}", 1));
+
+		buffer.flushWebsite(1L);
+
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"A\"}");
+		assertThat(footer.getSchemaData()).isNull();
+		WriteBehindStatsResponse stats = buffer.getStats();
+		assertThat(stats.getRowsWritten()).isEqualTo(1);
+		assertThat(stats.getFailures()).isEqualTo(1);
+		assertThat(stats.getPending()).isZero();
+	}
+
+	@Test
+	void keepsUpdatesPendingWhenNoConnectionIsAvailable() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("pool exhausted"));
+		buffer = new ComponentWriteBehindBuffer(repository, pageSnapshotCache, transactionManager);
+		configure(Duration.ofHours(1), Duration.ofHours(1));
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		buffer.offer(footer, request("{\"title\": \"F\"}", 1));
+
+		buffer.flushWebsite(1L);
+
+		verify(transactionManager, times(1)).getTransaction(any());
+		WriteBehindStatsResponse stats = buffer.getStats();
+		assertThat(stats.getPending()).isEqualTo(2);
+		assertThat(stats.getFailures()).isEqualTo(1);
+		assertThat(stats.getRowsWritten()).isZero();
+	}
+
+	@Test
+	void flushWebsiteWritesOnlyThatWebsiteAndEvictsItsSnapshot() {
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		buffer.offer(otherSiteHero, request("{\"title\": \"B\"}", 0));
+
+		buffer.flushWebsite(1L);
+
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"A\"}");
+		assertThat(otherSiteHero.getSchemaData()).isNull();
+		assertThat(buffer.getStats().getPending()).isEqualTo(1);
+		verify(pageSnapshotCache).evict("shop");
+		verify(pageSnapshotCache, never()).evict("blog");
+	}
+
+	@Test
+	void flushWebsiteWaitsForAScheduledFlushInProgress() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findAllById(List.of(10L))).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return List.of(hero);
+		});
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		configure(Duration.ZERO, Duration.ofHours(1));
+
+		Thread scheduled = new Thread(buffer::flushDue);
+		scheduled.start();
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// The update has left the pending map but is not stored yet
+		assertThat(buffer.getStats().getPending()).isZero();
+		Thread reader = new Thread(() -> buffer.flushWebsite(1L));
+		reader.start();
+		reader.join(200);
+		assertThat(reader.isAlive()).isTrue();
+
+		release.countDown();
+		reader.join(5000);
+		scheduled.join(5000);
+		assertThat(reader.isAlive()).isFalse();
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"A\"}");
+	}
+
+	@Test
+	void shutdownFlushesEverythingAndStopsBuffering() {
+		buffer.offer(hero, request("{\"title\": \"A\"}", 0));
+		buffer.offer(otherSiteHero, request("{\"title\": \"B\"}", 0));
+
+		buffer.shutdown();
+
+		assertThat(hero.getSchemaData()).isEqualTo("{\"title\": \"A\"}");
+		assertThat(otherSiteHero.getSchemaData()).isEqualTo("{\"title\": \"B\"}");
+		assertThat(buffer.hasPendingWrites()).isFalse();
+		assertThat(buffer.offer(hero, request("{\"title\": \"C\"}", 0))).isFalse();
+	}
+
+	private void configure(Duration window, Duration maxDelay) {
+		ReflectionTestUtils.setField(buffer, "enabled", true);
+		ReflectionTestUtils.setField(buffer, "window", window);
+		ReflectionTestUtils.setField(buffer, "maxDelay", maxDelay);
+		ReflectionTestUtils.setField(buffer, "batchSize", 50);
+	}
+
+	private static Website website(Long id, String subdomain) {
+		Website website = new Website();
+		website.setId(id);
+		website.setSubdomain(subdomain);
+		return website;
+	}
+
+	private static WebsiteComponent component(Long id, Website website) {
+		WebsiteComponent component = new WebsiteComponent();
+		component.setId(id);
+		component.setWebsite(website);
+		return component;
+	}
+
+	private static WebsiteComponentRequest request(String schemaData, int position) {
+		WebsiteComponentRequest request = new WebsiteComponentRequest();
+		request.setSchemaData(schemaData);
+		request.setPosition(position);
+		request.setVisible(true);
+		return request;
+	}
+}
@@ -0,0 +1,177 @@
+package com.ezweb.service;
+
+import com.ezweb.exception.BadRequestException;
+import com.ezweb.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPatchesTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// ==================== Merge Patch ====================
+
+	@Test
+	void mergePatchReplacesAndAddsMembers() {
+		assertThat(merge("{\"title\": \"Old\", \"autoPlay\": true}", "{\"title\": \"New\", \"interval\": 3000}"))
+				.isEqualTo(json("{\"title\": \"New\", \"autoPlay\": true, \"interval\": 3000}"));
+	}
+
+	@Test
+	void mergePatchNullDeletesMember() {
+		assertThat(merge("{\"title\": \"Hello\", \"subtitle\": \"World\"}", "{\"subtitle\": null}"))
+				.isEqualTo(json("{\"title\": \"Hello\"}"));
+	}
+
+	@Test
+	void mergePatchMergesNestedObjects() {
+		assertThat(merge("{\"style\": {\"color\": \"red\", \"size\": 2}}", "{\"style\": {\"size\": null, \"weight\": 700}}"))
+				.isEqualTo(json("{\"style\": {\"color\": \"red\", \"weight\": 700}}"));
+	}
+
+	@Test
+	void mergePatchReplacesArraysWhole() {
+		assertThat(merge("{\"images\": [\"a\", \"b\"]}", "{\"images\": [\"c\"]}"))
+				.isEqualTo(json("{\"images\": [\"c\"]}"));
+	}
+
+	@Test
+	void mergePatchWithNonObjectReplacesDocument() {
+		assertThat(merge("{\"title\": \"Hello\"}", "[1]")).isEqualTo(json("[1]"));
+	}
+
+	// ==================== JSON Patch ====================
+
+	@Test
+	void addSetsObjectMember() {
+		assertThat(patch("{\"title\": \"Hello\"}", "[{\"op\": \"add\", \"path\": \"/subtitle\", \"value\": \"World\"}]"))
+				.isEqualTo(json("{\"title\": \"Hello\", \"subtitle\": \"World\"}"));
+	}
+
+	@Test
+	void addInsertsAtArrayIndex() {
+		assertThat(patch("{\"images\": [\"a\", \"c\"]}", "[{\"op\": \"add\", \"path\": \"/images/1\", \"value\": \"b\"}]"))
+				.isEqualTo(json("{\"images\": [\"a\", \"b\", \"c\"]}"));
+	}
+
+	@Test
+	void addAppendsWithDash() {
+		assertThat(patch("{\"images\": [\"a\"]}", "[{\"op\": \"add\", \"path\": \"/images/-\", \"value\": \"b\"}]"))
+				.isEqualTo(json("{\"images\": [\"a\", \"b\"]}"));
+	}
+
+	@Test
+	void addRejectsIndexPastTheEnd() {
+		assertThatThrownBy(() -> patch("{\"images\": [\"a\"]}", "[{\"op\": \"add\", \"path\": \"/images/2\", \"value\": \"b\"}]"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void removeDeletesMemberAndArrayElement() {
+		assertThat(patch("{\"title\": \"Hello\", \"images\": [\"a\", \"b\", \"c\"]}", """
+				[{"op": "remove", "path": "/title"}, {"op": "remove", "path": "/images/1"}]
+				""")).isEqualTo(json("{\"images\": [\"a\", \"c\"]}"));
+	}
+
+	@Test
+	void removeRejectsMissingPath() {
+		assertThatThrownBy(() -> patch("{}", "[{\"op\": \"remove\", \"path\": \"/title\"}]"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Patch path does not exist: /title");
+	}
+
+	@Test
+	void replaceRequiresExistingTarget() {
+		assertThat(patch("{\"images\": [\"a\", \"b\"]}", "[{\"op\": \"replace\", \"path\": \"/images/0\", \"value\": \"z\"}]"))
+				.isEqualTo(json("{\"images\": [\"z\", \"b\"]}"));
+		assertThatThrownBy(() -> patch("{}", "[{\"op\": \"replace\", \"path\": \"/title\", \"value\": \"x\"}]"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void replaceRootReturnsNewDocument() {
+		assertThat(patch("{\"title\": \"Hello\"}", "[{\"op\": \"replace\", \"path\": \"\", \"value\": {\"title\": \"Bye\"}}]"))
+				.isEqualTo(json("{\"title\": \"Bye\"}"));
+	}
+
+	@Test
+	void moveRelocatesValue() {
+		assertThat(patch("{\"title\": \"Hello\", \"images\": [\"a\", \"b\"]}", """
+				[{"op": "move", "from": "/title", "path": "/heading"},
+				 {"op": "move", "from": "/images/0", "path": "/images/-"}]
+				""")).isEqualTo(json("{\"heading\": \"Hello\", \"images\": [\"b\", \"a\"]}"));
+	}
+
+	@Test
+	void moveRejectsMovingIntoOwnChild() {
+		assertThatThrownBy(() -> patch("{\"style\": {\"color\": \"red\"}}",
+				"[{\"op\": \"move\", \"from\": \"/style\", \"path\": \"/style/inner\"}]"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void copyDuplicatesValueIndependently() {
+		JsonNode result = patch("{\"style\": {\"color\": \"red\"}}", """
+				[{"op": "copy", "from": "/style", "path": "/hoverStyle"},
+				 {"op": "replace", "path": "/hoverStyle/color", "value": "blue"}]
+				""");
+		assertThat(result).isEqualTo(json("{\"style\": {\"color\": \"red\"}, \"hoverStyle\": {\"color\": \"blue\"}}"));
+	}
+
+	@Test
+	void passingTestLeavesDocumentUnchanged() {
+		assertThat(patch("{\"title\": \"Hello\"}", "[{\"op\": \"test\", \"path\": \"/title\", \"value\": \"Hello\"}]"))
+				.isEqualTo(json("{\"title\": \"Hello\"}"));
+	}
+
+	@Test
+	void failingTestThrowsConflict() {
+		assertThatThrownBy(() -> patch("{\"title\": \"Hello\"}", """
+				[{"op": "test", "path": "/title", "value": "Bye"}, {"op": "remove", "path": "/title"}]
+				"""))
+				.isInstanceOf(ConflictException.class)
+				.hasMessage("Patch test failed at /title");
+	}
+
+	@Test
+	void rejectsMalformedOperations() {
+		assertThatThrownBy(() -> patch("{}", "{\"op\": \"add\"}"))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> patch("{}", "[{\"op\": \"add\", \"value\": 1}]"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Patch operation is missing 'path'");
+		assertThatThrownBy(() -> patch("{}", "[{\"op\": \"add\", \"path\": \"/a\"}]"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Patch operation is missing 'value'");
+		assertThatThrownBy(() -> patch("{}", "[{\"op\": \"increment\", \"path\": \"/a\"}]"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Unsupported patch operation: increment");
+	}
+
+	@Test
+	void rejectsNonDecimalArrayIndexes() {
+		assertThatThrownBy(() -> patch("{\"images\": [\"a\", \"b\"]}", "[{\"op\": \"remove\", \"path\": \"/images/01\"}]"))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	private JsonNode merge(String target, String patch) {
+		return JsonPatches.mergePatch(json(target), json(patch));
+	}
+
+	private JsonNode patch(String target, String operations) {
+		return JsonPatches.jsonPatch(json(target), json(operations));
+	}
+
+	private JsonNode json(String content) {
+		try {
+			return objectMapper.readTree(content);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
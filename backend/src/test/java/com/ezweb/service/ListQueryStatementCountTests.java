@@ -0,0 +1,85 @@
+package com.ezweb.service;
+
+import com.ezweb.model.Category;
+import com.ezweb.model.ComponentRegistry;
+import com.ezweb.model.Product;
+import com.ezweb.model.SubCategory;
+import com.ezweb.model.Website;
+import com.ezweb.model.WebsiteComponent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListQueryStatementCountTests extends StatementCountTestSupport {
+
+	@Autowired
+	private WebsiteComponentService websiteComponentService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	void visibleComponentListingUsesConstantStatementCount() {
+		Website small = createWebsite();
+		Website large = createWebsite();
+		addComponents(small, 2);
+		addComponents(large, 20);
+
+		long smallCount = countStatements(() -> websiteComponentService.getVisibleWebsiteComponents(small.getId()));
+		long largeCount = countStatements(() -> websiteComponentService.getVisibleWebsiteComponents(large.getId()));
+
+		assertThat(largeCount).isEqualTo(smallCount);
+	}
+
+	@Test
+	void availableProductListingUsesConstantStatementCount() {
+		Website small = createWebsite();
+		Website large = createWebsite();
+		addProducts(small, 2);
+		addProducts(large, 20);
+
+		long smallCount = countStatements(() -> productService.getAvailableProducts(small.getId()));
+		long largeCount = countStatements(() -> productService.getAvailableProducts(large.getId()));
+
+		assertThat(largeCount).isEqualTo(smallCount);
+	}
+
+	private void addComponents(Website website, int count) {
+		for (int i = 0; i < count; i++) {
+			// A distinct registry row per component is the worst case for lazy loading
+			ComponentRegistry registry = createRegistry();
+
+			WebsiteComponent component = new WebsiteComponent();
+			component.setWebsite(website);
+			component.setComponentRegistry(registry);
+			component.setSchemaData("{}");
+			component.setPosition(i);
+			entityManager.persist(component);
+		}
+	}
+
+	private void addProducts(Website website, int count) {
+		for (int i = 0; i < count; i++) {
+			Category category = new Category();
+			category.setWebsite(website);
+			category.setName("Category " + i);
+			entityManager.persist(category);
+
+			SubCategory subCategory = new SubCategory();
+			subCategory.setCategory(category);
+			subCategory.setName("Sub-category " + i);
+			entityManager.persist(subCategory);
+
+			Product product = new Product();
+			product.setWebsite(website);
+			product.setName("Product " + i);
+			product.setPrice(BigDecimal.TEN);
+			product.setCategoryObj(category);
+			product.setSubCategory(subCategory);
+			entityManager.persist(product);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.ezweb.service;
+
+import com.ezweb.model.ComponentRegistry;
+import com.ezweb.model.User;
+import com.ezweb.model.Website;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Shared setup for tests that assert how many JDBC statements a piece of work
+ * prepares, using Hibernate statistics inside a rolled-back transaction.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+abstract class StatementCountTestSupport {
+
+	@PersistenceContext
+	protected EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUpStatistics() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	// Fixtures are flushed and detached first, and pending writes flushed after, so only the work is counted
+	protected long countStatements(Runnable work) {
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+
+		work.run();
+		entityManager.flush();
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	protected Website createWebsite() {
+		String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+		User user = new User();
+		user.setUsername("user-" + suffix);
+		user.setEmail(suffix + "@example.com");
+		user.setPassword("password");
+		entityManager.persist(user);
+
+		Website website = new Website();
+		website.setUser(user);
+		website.setSubdomain("site-" + suffix);
+		website.setTitle("Site " + suffix);
+		entityManager.persist(website);
+		return website;
+	}
+
+	protected ComponentRegistry createRegistry() {
+		ComponentRegistry registry = new ComponentRegistry();
+		registry.setName("Component-" + UUID.randomUUID());
+		registry.setS3FileUrl("https://example.com/component.js");
+		registry.setSchema("{}");
+		entityManager.persist(registry);
+		return registry;
+	}
+}
@@ -175,7 +175,7 @@ export default function ComponentsListPage() {
 
                   <div className="ml-4 flex items-center space-x-2">
                     <button
-                      onClick={() => handleToggleActive(component.id, component.active)}
+                      onClick={() => handleToggleActive(component.id, component.active === true)}
                       className="p-2 text-gray-400 hover:text-gray-600"
                       title={component.active ? 'Deactivate' : 'Activate'}
                     >
@@ -1,7 +1,7 @@
 'use client';
 
 import React, { useEffect, useState, Suspense } from 'react';
-import { loadComponentFromUrl, parseSchemaData } from '@/lib/component-loader';
+import { loadComponentFromUrl, parseJsonField, parseSchemaData } from '@/lib/component-loader';
 import type { WebsiteComponent, ComponentSchema } from '@/types';
 
 interface DynamicComponentRendererProps {
@@ -21,7 +21,7 @@ export function DynamicComponentRenderer({ websiteComponent }: DynamicComponentR
         setError(null);
 
         // Parse the schema from the component registry
-        const schema: ComponentSchema = JSON.parse(websiteComponent.componentRegistry.schema);
+        const schema = parseJsonField<ComponentSchema>(websiteComponent.componentRegistry.schema);
 
         // Parse the component data with schema defaults
         const parsedData = parseSchemaData(websiteComponent.schemaData, schema);
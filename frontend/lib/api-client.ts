@@ -9,14 +9,19 @@ import type {
   ComponentRegistry,
   WebsiteComponent,
   WebsiteComponentRequest,
+  CompactComponentList,
   Product,
+  ProductPage,
   ProductRequest,
   Media,
+  MediaUploadIntent,
   ApiResponse,
 } from '@/types';
 
 class ApiClient {
   private api: AxiosInstance;
+  // Registry entries by "id@version"; a published version never changes
+  private registryCache = new Map<string, ComponentRegistry>();
 
   constructor() {
     this.api = axios.create({
@@ -205,8 +210,20 @@ class ApiClient {
   }
 
   async getVisibleComponents(websiteId: number): Promise<WebsiteComponent[]> {
-    const response = await this.api.get<WebsiteComponent[]>(`/websites/${websiteId}/components/visible`);
-    return response.data;
+    // Ask for the compact view so each registry schema is sent once, and not at all if already cached
+    const known = Array.from(this.registryCache.keys());
+    const response = await this.api.get<CompactComponentList>(`/websites/${websiteId}/components/visible`, {
+      params: { view: 'compact', known: known.length > 0 ? known.join(',') : undefined },
+    });
+
+    for (const [key, registry] of Object.entries(response.data.registries)) {
+      this.registryCache.set(key, registry);
+    }
+
+    return response.data.components.map(({ componentRegistryKey, ...component }) => ({
+      ...component,
+      componentRegistry: this.registryCache.get(componentRegistryKey)!,
+    }));
   }
 
   async addComponentToWebsite(websiteId: number, data: WebsiteComponentRequest): Promise<WebsiteComponent> {
@@ -219,6 +236,23 @@ class ApiClient {
     return response.data;
   }
 
+  // Sends only the changed fields as an RFC 7396 merge patch; null removes a field
+  async patchWebsiteComponent(
+    websiteId: number,
+    id: number,
+    changes: Record<string, any>,
+    version?: number
+  ): Promise<WebsiteComponent> {
+    const headers: Record<string, string> = { 'Content-Type': 'application/merge-patch+json' };
+    if (version !== undefined) {
+      headers['If-Match'] = `"${version}"`;
+    }
+    const response = await this.api.patch<WebsiteComponent>(`/websites/${websiteId}/components/${id}`, changes, {
+      headers,
+    });
+    return response.data;
+  }
+
   async deleteWebsiteComponent(websiteId: number, id: number): Promise<ApiResponse> {
     const response = await this.api.delete<ApiResponse>(`/websites/${websiteId}/components/${id}`);
     return response.data;
@@ -230,13 +264,32 @@ class ApiClient {
   }
 
   // Product APIs
+  // The plain listings stop at a server-side cap, so whole catalogs are read page by page
   async getWebsiteProducts(websiteId: number): Promise<Product[]> {
-    const response = await this.api.get<Product[]>(`/websites/${websiteId}/products`);
-    return response.data;
+    return this.getAllProductPages(`/websites/${websiteId}/products/page`);
   }
 
   async getAvailableProducts(websiteId: number): Promise<Product[]> {
-    const response = await this.api.get<Product[]>(`/websites/${websiteId}/products/available`);
+    return this.getAllProductPages(`/websites/${websiteId}/products/available/page`);
+  }
+
+  private async getAllProductPages(url: string): Promise<Product[]> {
+    const products: Product[] = [];
+    let cursor: string | undefined;
+    do {
+      const response = await this.api.get<ProductPage>(url, {
+        params: { limit: 100, sort: 'createdAt', direction: 'asc', cursor },
+      });
+      products.push(...response.data.items);
+      cursor = response.data.hasMore ? response.data.nextCursor : undefined;
+    } while (cursor);
+    return products;
+  }
+
+  async searchProducts(websiteId: number, q: string, limit = 20): Promise<Product[]> {
+    const response = await this.api.get<Product[]>(`/websites/${websiteId}/products/search`, {
+      params: { q, limit },
+    });
     return response.data;
   }
 
@@ -257,17 +310,41 @@ class ApiClient {
 
   // Media APIs
   async uploadMedia(websiteId: number, file: File): Promise<Media> {
-    const formData = new FormData();
-    formData.append('file', file);
+    const contentType = file.type || 'application/octet-stream';
+
+    // Send the bytes straight to S3 with a presigned URL, then confirm with the backend
+    const intent = await this.api.post<MediaUploadIntent>(`/websites/${websiteId}/media/upload-intent`, {
+      filename: file.name,
+      contentType,
+      size: file.size,
+      sha256: await this.hashFile(file),
+    });
 
-    const response = await this.api.post<Media>(`/websites/${websiteId}/media`, formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data',
-      },
+    // Identical content is already stored; the media comes back READY
+    if (!intent.data.uploadUrl) {
+      return intent.data.media;
+    }
+
+    await axios.put(intent.data.uploadUrl, file, {
+      headers: intent.data.uploadHeaders,
     });
+
+    const response = await this.api.post<Media>(`/media/${intent.data.media.id}/complete`);
     return response.data;
   }
 
+  // Hashing reads the whole file into memory, so very large files skip deduplication
+  private async hashFile(file: File): Promise<string | undefined> {
+    if (file.size > 64 * 1024 * 1024 || !globalThis.crypto?.subtle) {
+      return undefined;
+    }
+
+    const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+    return Array.from(new Uint8Array(digest))
+      .map((byte) => byte.toString(16).padStart(2, '0'))
+      .join('');
+  }
+
   async getWebsiteMedia(websiteId: number): Promise<Media[]> {
     const response = await this.api.get<Media[]>(`/websites/${websiteId}/media`);
     return response.data;
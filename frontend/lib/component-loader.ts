@@ -155,12 +155,19 @@ export function loadComponentWithEval(code: string): React.ComponentType<any> {
   }
 }
 
+/**
+ * JSON fields arrive inline from the API; older responses carried them as strings
+ */
+export function parseJsonField<T>(value: T | string): T {
+  return typeof value === 'string' ? JSON.parse(value) : value;
+}
+
 /**
  * Parse component schema data with default values
  */
-export function parseSchemaData(schemaDataJson: string, schema: ComponentSchema): any {
+export function parseSchemaData(schemaData: Record<string, any> | string, schema: ComponentSchema): any {
   try {
-    const customData = JSON.parse(schemaDataJson);
+    const customData = parseJsonField(schemaData);
     const finalData: any = {};
 
     console.log('Schema fields:', Object.keys(schema.schema));
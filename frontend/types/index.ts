@@ -54,10 +54,10 @@ export interface ComponentRegistry {
   name: string;
   description?: string;
   s3FileUrl: string;
-  schema: string; // JSON string
+  schema: ComponentSchema | string; // Inline JSON; older servers send a JSON string
   category?: string;
   version: string;
-  active: boolean;
+  active?: boolean;  // Left out of id@version responses, which never change
   createdAt: string;
 }
 
@@ -87,13 +87,26 @@ export interface WebsiteComponent {
   id: number;
   websiteId: number;
   componentRegistry: ComponentRegistry;
-  schemaData: string; // JSON string with customized values
+  schemaData: Record<string, any> | string; // Inline JSON with customized values; older servers send a string
   position: number;
   visible: boolean;
+  version?: number; // Pass to patchWebsiteComponent to reject edits made elsewhere meanwhile
   createdAt: string;
   updatedAt: string;
 }
 
+// Compact listing: instances reference registries by "id@version" instead of embedding them
+export interface CompactWebsiteComponent extends Omit<WebsiteComponent, 'componentRegistry'> {
+  componentRegistryKey: string;
+  componentRegistryId: number;
+  componentRegistryVersion: string;
+}
+
+export interface CompactComponentList {
+  components: CompactWebsiteComponent[];
+  registries: Record<string, ComponentRegistry>;  // Omits keys sent as known
+}
+
 export interface WebsiteComponentRequest {
   componentRegistryId: number;
   schemaData: string; // JSON data
@@ -117,6 +130,12 @@ export interface Product {
   updatedAt: string;
 }
 
+export interface ProductPage {
+  items: Product[];
+  nextCursor?: string;  // Absent on the last page
+  hasMore: boolean;
+}
+
 export interface ProductRequest {
   name: string;
   description?: string;
@@ -137,9 +156,27 @@ export interface Media {
   type: 'IMAGE' | 'VIDEO' | 'DOCUMENT' | 'OTHER';
   size: number;
   mimeType?: string;
+  status: 'UPLOADING' | 'READY' | 'FAILED';
+  variants: MediaVariant[];
+  srcset?: string;
   createdAt: string;
 }
 
+export interface MediaVariant {
+  width: number;
+  height: number;
+  mimeType: string;
+  s3Url: string;
+  size: number;
+}
+
+export interface MediaUploadIntent {
+  media: Media;
+  uploadUrl: string | null;
+  uploadHeaders: Record<string, string>;
+  expiresAt: string | null;
+}
+
 // API Response Types
 export interface ApiResponse {
   success: boolean;
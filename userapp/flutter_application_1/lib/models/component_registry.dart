@@ -1,4 +1,5 @@
 import 'package:json_annotation/json_annotation.dart';
+import 'json_text.dart';
 
 part 'component_registry.g.dart';
 
@@ -8,7 +9,8 @@ class ComponentRegistry {
   final String name;
   final String? description;
   final String s3FileUrl;
-  final String schema; // JSON string
+  @JsonKey(fromJson: jsonText)
+  final String schema; // JSON document text
   final String? category;
   final String version;
   final bool active;
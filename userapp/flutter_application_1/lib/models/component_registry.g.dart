@@ -12,7 +12,7 @@ ComponentRegistry _$ComponentRegistryFromJson(Map<String, dynamic> json) =>
       name: json['name'] as String,
       description: json['description'] as String?,
       s3FileUrl: json['s3FileUrl'] as String,
-      schema: json['schema'] as String,
+      schema: jsonText(json['schema']),
       category: json['category'] as String?,
       version: json['version'] as String,
       active: json['active'] as bool,
@@ -0,0 +1,5 @@
+import 'dart:convert';
+
+/// JSON document fields arrive inline from the API; older responses carried
+/// them as strings. Either way the model keeps the document text.
+String jsonText(Object? value) => value is String ? value : jsonEncode(value);
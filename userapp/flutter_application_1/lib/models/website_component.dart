@@ -1,5 +1,6 @@
 import 'package:json_annotation/json_annotation.dart';
 import 'component_registry.dart';
+import 'json_text.dart';
 
 part 'website_component.g.dart';
 
@@ -8,7 +9,8 @@ class WebsiteComponent {
   final int id;
   final int websiteId;
   final ComponentRegistry componentRegistry;
-  final String schemaData; // JSON string with customized values
+  @JsonKey(fromJson: jsonText)
+  final String schemaData; // JSON document text with customized values
   final int position;
   final bool visible;
   final DateTime createdAt;
@@ -13,7 +13,7 @@ WebsiteComponent _$WebsiteComponentFromJson(Map<String, dynamic> json) =>
       componentRegistry: ComponentRegistry.fromJson(
         json['componentRegistry'] as Map<String, dynamic>,
       ),
-      schemaData: json['schemaData'] as String,
+      schemaData: jsonText(json['schemaData']),
       position: (json['position'] as num).toInt(),
       visible: json['visible'] as bool,
       createdAt: DateTime.parse(json['createdAt'] as String),
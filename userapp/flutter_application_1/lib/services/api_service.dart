@@ -246,12 +246,26 @@ class ApiService {
   }
 
   // Product APIs
+  // The plain listing stops at a server-side cap, so the whole catalog is read page by page
   Future<List<Product>> getWebsiteProducts(int websiteId) async {
     try {
-      final response = await _dio.get('/websites/$websiteId/products');
-      return (response.data as List)
-          .map((json) => Product.fromJson(json))
-          .toList();
+      final products = <Product>[];
+      String? cursor;
+      do {
+        final response = await _dio.get(
+          '/websites/$websiteId/products/page',
+          queryParameters: {
+            'limit': 100,
+            'sort': 'createdAt',
+            'direction': 'asc',
+            if (cursor != null) 'cursor': cursor,
+          },
+        );
+        products.addAll((response.data['items'] as List)
+            .map((json) => Product.fromJson(json)));
+        cursor = response.data['hasMore'] == true ? response.data['nextCursor'] as String? : null;
+      } while (cursor != null);
+      return products;
     } catch (e) {
       rethrow;
     }